@@ -0,0 +1,73 @@
+package com.clone.paypal.api_gateway;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import java.util.Set;
+
+/**
+ * Validates bearer tokens at the edge and forwards the authenticated user id downstream
+ * as a trusted X-User-Id header. Any X-User-Id sent by the client is discarded.
+ */
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+    public static final String USER_ID_HEADER = "X-User-Id";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final Set<String> PUBLIC_PATHS = Set.of(
+            "/api/users/login",
+            "/api/users/register",
+            "/api/users/jwks"
+    );
+
+    @Autowired
+    private ReactiveJwtDecoder jwtDecoder;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (HttpMethod.OPTIONS.equals(request.getMethod()) || PUBLIC_PATHS.contains(request.getPath().value())) {
+            return chain.filter(withUserId(exchange, null));
+        }
+
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return unauthorized(exchange);
+        }
+
+        return jwtDecoder.decode(authorization.substring(BEARER_PREFIX.length()))
+                .flatMap(jwt -> chain.filter(withUserId(exchange, jwt.getSubject())))
+                .onErrorResume(JwtException.class, e -> unauthorized(exchange));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    private ServerWebExchange withUserId(ServerWebExchange exchange, String userId) {
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(USER_ID_HEADER);
+                    if (userId != null) {
+                        headers.set(USER_ID_HEADER, userId);
+                    }
+                })
+                .build();
+        return exchange.mutate().request(request).build();
+    }
+
+    private Mono<Void> unauthorized(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        return exchange.getResponse().setComplete();
+    }
+}
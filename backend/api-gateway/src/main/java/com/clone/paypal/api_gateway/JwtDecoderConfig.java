@@ -0,0 +1,27 @@
+package com.clone.paypal.api_gateway;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+public class JwtDecoderConfig {
+
+    // The decoder caches the key set and only refetches it when it sees an unknown key id
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder(ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+                                         @Value("${security.jwt.jwk-set-uri}") String jwkSetUri,
+                                         @Value("${security.jwt.issuer}") String issuer) {
+        WebClient webClient = WebClient.builder().filter(loadBalancerFunction).build();
+        NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withJwkSetUri(jwkSetUri)
+                .webClient(webClient)
+                .build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+        return decoder;
+    }
+}
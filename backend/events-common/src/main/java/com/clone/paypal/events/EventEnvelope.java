@@ -0,0 +1,52 @@
+package com.clone.paypal.events;
+
+import java.util.UUID;
+
+/**
+ * An event with the metadata every service publishes alongside it. On the wire the payload is the record value,
+ * the user id is the record key, and id, type and timestamp travel as headers, so consumers keep reading payloads.
+ */
+public class EventEnvelope<T> {
+    private final String id;
+    private final String type;
+    private final Long userId;
+    private final long timestamp;
+    private final T payload;
+
+    public EventEnvelope(String id, String type, Long userId, long timestamp, T payload) {
+        this.id = id;
+        this.type = type;
+        this.userId = userId;
+        this.timestamp = timestamp;
+        this.payload = payload;
+    }
+
+    public static <T> EventEnvelope<T> of(String type, Long userId, T payload) {
+        return new EventEnvelope<>(UUID.randomUUID().toString(), type, userId, System.currentTimeMillis(), payload);
+    }
+
+    /** Keeps an id the payload already carries, so consumers that dedupe on it see the same value. */
+    public static <T> EventEnvelope<T> withId(String id, String type, Long userId, T payload) {
+        return new EventEnvelope<>(id != null ? id : UUID.randomUUID().toString(), type, userId, System.currentTimeMillis(), payload);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public T getPayload() {
+        return payload;
+    }
+}
@@ -0,0 +1,93 @@
+package com.clone.paypal.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes envelopes keyed by user id, so each user's events stay ordered on one partition.
+ * Send latency (until the broker acknowledges) and failures are recorded per topic and event type.
+ */
+public class EventPublisher implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(EventPublisher.class);
+
+    public static final String EVENT_ID_HEADER = "event-id";
+    public static final String EVENT_TYPE_HEADER = "event-type";
+    public static final String EVENT_TIMESTAMP_HEADER = "event-timestamp";
+
+    private final DefaultKafkaProducerFactory<String, Object> producerFactory;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public EventPublisher(DefaultKafkaProducerFactory<String, Object> producerFactory, MeterRegistry meterRegistry) {
+        this.producerFactory = producerFactory;
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> CompletableFuture<SendResult<String, Object>> publish(String topic, EventEnvelope<T> envelope) {
+        String key = envelope.getUserId() == null ? null : String.valueOf(envelope.getUserId());
+        ProducerRecord<String, Object> record = new ProducerRecord<>(topic, key, envelope.getPayload());
+        Headers headers = record.headers();
+        headers.add(EVENT_ID_HEADER, envelope.getId().getBytes(StandardCharsets.UTF_8));
+        headers.add(EVENT_TYPE_HEADER, envelope.getType().getBytes(StandardCharsets.UTF_8));
+        headers.add(EVENT_TIMESTAMP_HEADER, String.valueOf(envelope.getTimestamp()).getBytes(StandardCharsets.UTF_8));
+
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            recordFailure(topic, envelope, e);
+            throw e;
+        }
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                recordFailure(topic, envelope, error);
+            } else {
+                Timer.builder("events.publish.latency")
+                        .tag("topic", topic)
+                        .tag("type", envelope.getType())
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+        return future;
+    }
+
+    /** Sends every envelope, then waits once for the whole batch to leave the producer. */
+    public <T> void publishAll(String topic, Collection<EventEnvelope<T>> envelopes) {
+        for (EventEnvelope<T> envelope : envelopes) {
+            publish(topic, envelope);
+        }
+        kafkaTemplate.flush();
+    }
+
+    @Override
+    public void destroy() {
+        producerFactory.destroy();
+    }
+
+    private void recordFailure(String topic, EventEnvelope<?> envelope, Throwable error) {
+        Counter.builder("events.publish.failures")
+                .tag("topic", topic)
+                .tag("type", envelope.getType())
+                .tag("exception", error.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+        logger.error("Failed to publish {} event {} for user {} to {}", envelope.getType(), envelope.getId(),
+                envelope.getUserId(), topic, error);
+    }
+}
@@ -0,0 +1,45 @@
+package com.clone.paypal.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import java.util.Map;
+
+/**
+ * Registers the {@link EventPublisher}. Its producer starts from the service's spring.kafka.producer settings
+ * and applies the shared batching, compression and durability settings from events.publisher.*.
+ * The producer is private to the publisher, so Boot's own KafkaTemplate stays available to the service.
+ */
+@AutoConfiguration(after = KafkaAutoConfiguration.class)
+public class EventsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public EventPublisher eventPublisher(KafkaProperties kafkaProperties,
+                                         ObjectProvider<MeterRegistry> meterRegistry,
+                                         @Value("${events.publisher.linger-ms:10}") int lingerMs,
+                                         @Value("${events.publisher.batch-size:65536}") int batchSize,
+                                         @Value("${events.publisher.compression-type:lz4}") String compressionType,
+                                         @Value("${events.publisher.acks:all}") String acks) {
+        Map<String, Object> props = kafkaProperties.buildProducerProperties();
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        props.put(ProducerConfig.ACKS_CONFIG, acks);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "all".equals(acks));
+        return new EventPublisher(new DefaultKafkaProducerFactory<>(props),
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+}
@@ -0,0 +1,13 @@
+package com.clone.paypal.notification_service;
+
+import java.util.List;
+
+/**
+ * Sends notifications over one external channel (email, SMS, mobile push). Implementations are picked up as beans;
+ * a batch either goes out as a whole or the call throws and the dispatcher retries it.
+ */
+public interface ChannelAdapter {
+    String channel();
+
+    void send(List<Notification> notifications) throws Exception;
+}
@@ -0,0 +1,30 @@
+package com.clone.paypal.notification_service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Real provider adapters replace these by turning stub-adapters off and registering their own ChannelAdapter beans
+@Configuration
+@ConditionalOnProperty(name = "notifications.dispatch.stub-adapters", havingValue = "true", matchIfMissing = true)
+public class ChannelAdapterConfig {
+
+    @Bean
+    public ChannelAdapter emailChannelAdapter(@Value("${notifications.dispatch.stub.latency-ms:0}") long latencyMs,
+                                              @Value("${notifications.dispatch.stub.failure-rate:0}") double failureRate) {
+        return new StubChannelAdapter("email", latencyMs, failureRate);
+    }
+
+    @Bean
+    public ChannelAdapter smsChannelAdapter(@Value("${notifications.dispatch.stub.latency-ms:0}") long latencyMs,
+                                            @Value("${notifications.dispatch.stub.failure-rate:0}") double failureRate) {
+        return new StubChannelAdapter("sms", latencyMs, failureRate);
+    }
+
+    @Bean
+    public ChannelAdapter pushChannelAdapter(@Value("${notifications.dispatch.stub.latency-ms:0}") long latencyMs,
+                                             @Value("${notifications.dispatch.stub.failure-rate:0}") double failureRate) {
+        return new StubChannelAdapter("push", latencyMs, failureRate);
+    }
+}
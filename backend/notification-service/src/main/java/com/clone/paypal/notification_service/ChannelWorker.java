@@ -0,0 +1,167 @@
+package com.clone.paypal.notification_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivery pipeline of one channel: a bounded queue drained in batches by its own threads, paced by a rate limit.
+ * When the queue is full new notifications are dropped for this channel rather than blocking the caller.
+ */
+public class ChannelWorker {
+    private static final Logger logger = LoggerFactory.getLogger(ChannelWorker.class);
+
+    private final ChannelAdapter adapter;
+    private final NotificationDeliveryRepository deliveryRepository;
+    private final BlockingQueue<Notification> queue;
+    private final int batchSize;
+    private final long lingerMs;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long nanosPerSend;
+    private final List<Thread> threads = new ArrayList<>();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private long nextSendAt = System.nanoTime();
+    private volatile boolean running = true;
+
+    public ChannelWorker(ChannelAdapter adapter, NotificationDeliveryRepository deliveryRepository, int workers,
+                         int queueCapacity, int batchSize, long lingerMs, double ratePerSecond, int maxAttempts,
+                         long retryBackoffMs) {
+        this.adapter = adapter;
+        this.deliveryRepository = deliveryRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.nanosPerSend = ratePerSecond > 0 ? (long) (1_000_000_000L / ratePerSecond) : 0;
+        for (int i = 1; i <= workers; i++) {
+            Thread thread = new Thread(this::run, "dispatch-" + adapter.channel() + "-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+    }
+
+    public void start() {
+        threads.forEach(Thread::start);
+    }
+
+    public void offer(Notification notification) {
+        if (!queue.offer(notification)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public void stop(long timeoutMs) {
+        running = false;
+        for (Thread thread : threads) {
+            try {
+                thread.join(timeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", queue.size());
+        stats.put("sent", sent.get());
+        stats.put("failed", failed.get());
+        stats.put("dropped", dropped.get());
+        return stats;
+    }
+
+    private void run() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Notification first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - batch.size());
+                if (batch.size() < batchSize && lingerMs > 0) {
+                    Thread.sleep(lingerMs); // Let a partial batch fill up a little before paying for a send
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                awaitRate(batch.size());
+                deliver(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Dispatch worker for {} failed on a batch of {}", adapter.channel(), batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Spaces sends so that, across this channel's threads, no more than the configured rate goes out
+    private void awaitRate(int permits) throws InterruptedException {
+        if (nanosPerSend == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long start = Math.max(nextSendAt, now);
+            nextSendAt = start + permits * nanosPerSend;
+            waitNanos = start - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void deliver(List<Notification> batch) throws InterruptedException {
+        String error = null;
+        int attempt = 0;
+        while (attempt < maxAttempts) {
+            attempt++;
+            try {
+                adapter.send(batch);
+                error = null;
+                break;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                error = e.getMessage();
+                if (attempt < maxAttempts) {
+                    Thread.sleep(retryBackoffMs * attempt);
+                }
+            }
+        }
+
+        String status = error == null ? NotificationDelivery.SENT : NotificationDelivery.FAILED;
+        if (error == null) {
+            sent.addAndGet(batch.size());
+        } else {
+            failed.addAndGet(batch.size());
+            logger.warn("Giving up on {} {} notifications after {} attempts: {}", batch.size(), adapter.channel(), attempt, error);
+        }
+
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Kolkata"));
+        List<NotificationDelivery> deliveries = new ArrayList<>(batch.size());
+        for (Notification notification : batch) {
+            deliveries.add(new NotificationDelivery(notification.getId(), notification.getUserId(), adapter.channel(),
+                    status, attempt, error, now));
+        }
+        deliveryRepository.saveAll(deliveries);
+    }
+}
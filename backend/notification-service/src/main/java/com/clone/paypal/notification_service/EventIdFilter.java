@@ -0,0 +1,84 @@
+package com.clone.paypal.notification_service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloom filter over recently consumed event ids. A miss means the id was never seen by this instance;
+ * a hit only means it might have been and has to be confirmed against the database.
+ * Two generations are kept so that rotating out a full filter does not forget the most recent ids.
+ */
+@Component
+public class EventIdFilter {
+    private final int expectedInsertions;
+    private final int bits;
+    private final int hashes;
+
+    private long[] current;
+    private long[] previous;
+    private int currentCount;
+
+    public EventIdFilter(@Value("${notifications.dedupe.expected-insertions:1000000}") int expectedInsertions,
+                         @Value("${notifications.dedupe.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.expectedInsertions = expectedInsertions;
+        this.bits = (int) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        this.current = new long[(bits + 63) / 64];
+        this.previous = new long[current.length];
+    }
+
+    public synchronized boolean mightContain(String eventId) {
+        long h1 = hash(eventId);
+        long h2 = mix(h1);
+        for (int i = 0; i < hashes; i++) {
+            int bit = index(h1 + i * h2);
+            if (!isSet(current, bit) && !isSet(previous, bit)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public synchronized void put(String eventId) {
+        if (currentCount >= expectedInsertions) {
+            previous = current;
+            current = new long[previous.length];
+            currentCount = 0;
+        }
+        long h1 = hash(eventId);
+        long h2 = mix(h1);
+        for (int i = 0; i < hashes; i++) {
+            int bit = index(h1 + i * h2);
+            current[bit >>> 6] |= 1L << bit;
+        }
+        currentCount++;
+    }
+
+    private int index(long combined) {
+        return (int) ((combined & Long.MAX_VALUE) % bits);
+    }
+
+    private static boolean isSet(long[] words, int bit) {
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    // FNV-1a over the id's characters
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // Murmur3 finalizer, giving the second hash for double hashing
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h | 1;
+    }
+}
@@ -3,29 +3,150 @@ package com.clone.paypal.notification_service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Service
 public class KafkaConsumerService {
     private static final Logger logger = LoggerFactory.getLogger(KafkaConsumerService.class);
 
+    @Autowired
+    private NotificationWriter notificationWriter;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
     @Autowired
     private NotificationRepository notificationRepository;
 
-    @KafkaListener(topics = "notification_topic", groupId = "notification_group")
-    public void consume(NotificationRequest notificationRequest) {
-        logger.info("Consumed Kafka message -> Sending notification to user {}: '{}' of type '{}'",
-                notificationRequest.getUserId(), notificationRequest.getMessage(), notificationRequest.getType());
-
-        Notification notification = new Notification();
-        notification.setUserId(notificationRequest.getUserId());
-        notification.setMessage(notificationRequest.getMessage());
-        notification.setTimestamp(LocalDateTime.now(ZoneId.of("Asia/Kolkata")));
-        notification.setRead(false);
-        notification.setType(notificationRequest.getType()); // Set the notification type
-        notificationRepository.save(notification);
+    @Autowired
+    private NotificationDigestMemberRepository notificationDigestMemberRepository;
+
+    @Autowired
+    private EventIdFilter eventIdFilter;
+
+    @Autowired
+    private NotificationPreferenceService notificationPreferenceService;
+
+    // Each poll, digests included, is stored in one transaction with JDBC batching; offsets are committed only
+    // after it returns or the batch has been handed to the redelivery topic
+    @KafkaListener(topics = "notification_topic", groupId = "notification_group", batch = "true",
+            concurrency = "${notifications.consumer.concurrency:3}")
+    public void consume(List<NotificationRequest> notificationRequests) {
+        long start = System.nanoTime();
+
+        List<NotificationRequest> fresh = new ArrayList<>(notificationRequests.size());
+        int unreadable = 0;
+        for (NotificationRequest notificationRequest : notificationRequests) {
+            if (notificationRequest == null) {
+                unreadable++; // Failed to deserialize; retrying would not help
+                continue;
+            }
+            fresh.add(notificationRequest);
+        }
+        if (unreadable > 0) {
+            logger.warn("Skipped {} unreadable notification records", unreadable);
+        }
+        fresh = dropDuplicates(fresh);
+        List<NotificationRequest> toStore = dropMuted(fresh);
+
+        try {
+            try {
+                notificationWriter.store(toStore);
+            } catch (DataIntegrityViolationException e) {
+                // Another consumer stored some of these first, e.g. after a rebalance; keep only the rest
+                toStore = withoutStored(toStore);
+                notificationWriter.store(toStore);
+            }
+        } catch (Exception e) {
+            // Hand the batch to the retry topics instead of blocking the partition on it; if that fails too the
+            // exception propagates and the container retries the batch without committing its offsets
+            logger.error("Failed to store {} notifications, sending them for redelivery", toStore.size(), e);
+            kafkaProducerService.sendForRedelivery(toStore);
+            return;
+        }
+
+        logger.info("Consumed {} notifications, stored {} in {} ms", notificationRequests.size(), toStore.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Ids the filter has never seen skip the database; only possible repeats are looked up
+    private List<NotificationRequest> dropDuplicates(List<NotificationRequest> requests) {
+        Set<String> seenInBatch = new HashSet<>();
+        Set<String> maybeSeen = new HashSet<>();
+        for (NotificationRequest request : requests) {
+            String eventId = request.getEventId();
+            if (eventId != null && eventIdFilter.mightContain(eventId)) {
+                maybeSeen.add(eventId);
+            }
+        }
+        Set<String> stored = maybeSeen.isEmpty() ? Set.of() : storedEventIds(maybeSeen);
+
+        List<NotificationRequest> fresh = new ArrayList<>(requests.size());
+        for (NotificationRequest request : requests) {
+            String eventId = request.getEventId();
+            if (eventId == null) {
+                fresh.add(request);
+            } else if (!stored.contains(eventId) && seenInBatch.add(eventId)) {
+                eventIdFilter.put(eventId);
+                fresh.add(request);
+            }
+        }
+        if (fresh.size() < requests.size()) {
+            logger.info("Dropped {} duplicate notification events", requests.size() - fresh.size());
+        }
+        return fresh;
+    }
+
+    // Muted types are dropped before anything is written or dispatched
+    private List<NotificationRequest> dropMuted(List<NotificationRequest> requests) {
+        Set<Long> userIds = new HashSet<>();
+        for (NotificationRequest request : requests) {
+            if (request.getUserId() != null) {
+                userIds.add(request.getUserId());
+            }
+        }
+        notificationPreferenceService.preload(userIds);
+
+        List<NotificationRequest> allowed = new ArrayList<>(requests.size());
+        for (NotificationRequest request : requests) {
+            if (request.getUserId() == null || notificationPreferenceService.allowsInApp(request.getUserId(), request.getType())) {
+                allowed.add(request);
+            }
+        }
+        if (allowed.size() < requests.size()) {
+            logger.info("Dropped {} muted notifications", requests.size() - allowed.size());
+        }
+        return allowed;
+    }
+
+    private List<NotificationRequest> withoutStored(List<NotificationRequest> requests) {
+        Set<String> eventIds = new HashSet<>();
+        for (NotificationRequest request : requests) {
+            if (request.getEventId() != null) {
+                eventIds.add(request.getEventId());
+            }
+        }
+        Set<String> stored = eventIds.isEmpty() ? Set.of() : storedEventIds(eventIds);
+        List<NotificationRequest> remaining = new ArrayList<>(requests.size());
+        for (NotificationRequest request : requests) {
+            if (request.getEventId() == null || !stored.contains(request.getEventId())) {
+                remaining.add(request);
+            }
+        }
+        logger.info("Skipped {} notification events already stored by another consumer", requests.size() - remaining.size());
+        return remaining;
+    }
+
+    // An event is stored either as its own row or as a member of a digest
+    private Set<String> storedEventIds(Set<String> eventIds) {
+        Set<String> stored = new HashSet<>(notificationRepository.findExistingEventIds(eventIds));
+        stored.addAll(notificationDigestMemberRepository.findExistingEventIds(eventIds));
+        return stored;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package com.clone.paypal.notification_service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class KafkaProducerService {
+    private static final String DELETION_PROGRESS_TOPIC = "user_deletion_progress";
+    private static final String PUSH_TOPIC = "notification_push";
+    public static final String REDELIVERY_TOPIC = "notification_redelivery";
+
+    @Autowired
+    private KafkaTemplate<String, DeletionProgressEvent> deletionProgressTemplate;
+
+    @Autowired
+    private KafkaTemplate<String, NotificationPushEvent> pushTemplate;
+
+    @Autowired
+    private KafkaTemplate<String, NotificationRequest> redeliveryTemplate;
+
+    public void sendDeletionProgress(DeletionProgressEvent event) {
+        deletionProgressTemplate.send(DELETION_PROGRESS_TOPIC, String.valueOf(event.getUserId()), event);
+    }
+
+    public void sendPushEvent(NotificationPushEvent event) {
+        pushTemplate.send(PUSH_TOPIC, event);
+    }
+
+    // Waits for every send to be acknowledged and throws if any failed, so the caller only acknowledges the
+    // original records once they are handed over
+    public void sendForRedelivery(Collection<NotificationRequest> requests) {
+        List<CompletableFuture<?>> sends = new ArrayList<>(requests.size());
+        for (NotificationRequest request : requests) {
+            sends.add(redeliveryTemplate.send(REDELIVERY_TOPIC, String.valueOf(request.getUserId()), request));
+        }
+        redeliveryTemplate.flush();
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+    }
+}
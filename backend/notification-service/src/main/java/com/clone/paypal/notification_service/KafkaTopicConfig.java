@@ -0,0 +1,17 @@
+package com.clone.paypal.notification_service;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    // Listener concurrency only helps up to the partition count, so the topic is sized from config
+    @Bean
+    public NewTopic notificationTopic(@Value("${notifications.topic.partitions:3}") int partitions) {
+        return TopicBuilder.name("notification_topic").partitions(partitions).replicas(1).build();
+    }
+}
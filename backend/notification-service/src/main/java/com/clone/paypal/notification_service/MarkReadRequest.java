@@ -0,0 +1,18 @@
+package com.clone.paypal.notification_service;
+
+import java.util.List;
+
+public class MarkReadRequest {
+    private List<Long> ids;
+
+    public MarkReadRequest() {
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
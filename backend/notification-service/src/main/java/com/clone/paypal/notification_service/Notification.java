@@ -1,21 +1,37 @@
 package com.clone.paypal.notification_service;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "notification", indexes = {
+        @Index(name = "idx_notification_user_ts_id", columnList = "userId, timestamp, id"),
+        @Index(name = "idx_notification_read_ts", columnList = "read, timestamp")
+})
 public class Notification {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids (50 per fetch) let Hibernate batch inserts, which IDENTITY rules out
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 50)
     private Long id;
     private Long userId;
     private String message;
     private LocalDateTime timestamp;
     private boolean read;
     private String type; // 'transaction', 'request', 'system'
+    @Column(unique = true, length = 36)
+    private String eventId; // Producer-stamped id; null on digests
+    private String category;
+    private BigDecimal amount;
+    private Integer digestCount; // Notifications folded into this digest; null on plain rows
 
     public Notification() {
     }
@@ -75,4 +91,36 @@ public class Notification {
     public void setType(String type) {
         this.type = type;
     }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Integer getDigestCount() {
+        return digestCount;
+    }
+
+    public void setDigestCount(Integer digestCount) {
+        this.digestCount = digestCount;
+    }
 }
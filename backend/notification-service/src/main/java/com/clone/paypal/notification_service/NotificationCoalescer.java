@@ -0,0 +1,343 @@
+package com.clone.paypal.notification_service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Merges bursts of same-category notifications for a user into digest rows.
+ * The first notification after a quiet window is stored as usual; later ones in the window are folded into a
+ * digest row that is inserted once and then incremented in place, in the same transaction as the rest of the
+ * batch. The event ids folded into a digest are stored alongside it, so duplicates are still caught.
+ * Only the window bookkeeping is kept in memory, so losing it merely starts a new window. Windows are only read
+ * and changed inside {@code compute} calls on their key, and hold no entities: rows inserted by a batch stay in
+ * that batch, and a window learns the digest's id once the batch that inserted it has flushed.
+ */
+@Component
+public class NotificationCoalescer {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationDigestMemberRepository notificationDigestMemberRepository;
+
+    @Value("${notifications.coalescing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notifications.coalescing.window-seconds:60}")
+    private long windowSeconds;
+
+    @Value("${notifications.coalescing.max-count:100}")
+    private int maxCount;
+
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Turns requests into rows to insert and increments to open digests, then applies the increments.
+     * Must run inside the writer's transaction; window changes are dropped again if it rolls back.
+     */
+    public Batch coalesce(Collection<NotificationRequest> requests, LocalDateTime now) {
+        Batch batch = new Batch();
+        long nanos = System.nanoTime();
+        long windowNanos = windowSeconds * 1_000_000_000L;
+        for (NotificationRequest request : requests) {
+            if (!enabled || request.getCategory() == null || request.getUserId() == null) {
+                batch.inserts.add(toNotification(request, now));
+                continue;
+            }
+            String key = key(request.getUserId(), request.getCategory());
+            batch.keys.add(key);
+            windows.compute(key, (k, window) -> {
+                if (window == null || nanos - window.openedAt >= windowNanos) {
+                    batch.inserts.add(toNotification(request, now));
+                    return new Window(nanos);
+                }
+                window.fold(k, request, now, batch);
+                if (window.count >= maxCount) {
+                    window.seal(k, batch); // The next one starts a fresh digest row
+                }
+                return window;
+            });
+        }
+
+        for (Increment increment : batch.increments.values()) {
+            int updated = notificationRepository.incrementDigest(increment.digestId, increment.delta, increment.amount,
+                    digestMessage(increment.category, increment.type, increment.count, increment.total));
+            if (updated > 0) {
+                batch.updatedIds.add(increment.digestId);
+                increment.eventIds.forEach(eventId -> batch.members.add(new Member(eventId, increment.userId, null, increment.digestId)));
+                continue;
+            }
+            // The digest was read or deleted meanwhile; its unread count must not change, so open a new one
+            Notification digest = increment.toDigest(now);
+            batch.inserts.add(digest);
+            increment.eventIds.forEach(eventId -> batch.members.add(new Member(eventId, increment.userId, digest, null)));
+            windows.computeIfPresent(increment.key, (k, window) -> {
+                if (increment.digestId.equals(window.digestId)) {
+                    window.restart(k, batch, digest, increment.delta, increment.amount);
+                }
+                return window;
+            });
+        }
+
+        if (!batch.keys.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        batch.keys.forEach(windows::remove);
+                    }
+                }
+            });
+        }
+        return batch;
+    }
+
+    /**
+     * Call once the batch's rows are flushed: stores the event ids folded into digests and records the ids of
+     * new digest rows, so later batches increment them.
+     */
+    public void persisted(Batch batch) {
+        if (!batch.members.isEmpty()) {
+            List<NotificationDigestMember> members = new ArrayList<>(batch.members.size());
+            for (Member member : batch.members) {
+                Long notificationId = member.digest != null ? member.digest.getId() : member.digestId;
+                members.add(new NotificationDigestMember(member.eventId, notificationId, member.userId));
+            }
+            // Flushed so a member id stored meanwhile surfaces as DataIntegrityViolationException too
+            notificationDigestMemberRepository.saveAllAndFlush(members);
+        }
+        for (String key : batch.keys) {
+            windows.computeIfPresent(key, (k, window) -> {
+                window.promote(k, batch);
+                return window;
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.coalescing.sweep-interval-ms:10000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        long windowNanos = windowSeconds * 1_000_000_000L;
+        for (String key : windows.keySet()) {
+            windows.computeIfPresent(key, (k, window) -> now - window.openedAt >= windowNanos ? null : window);
+        }
+    }
+
+    public void discard(Long userId) {
+        String prefix = userId + ":";
+        for (String key : windows.keySet()) {
+            if (key.startsWith(prefix)) {
+                windows.computeIfPresent(key, (k, window) -> null);
+            }
+        }
+    }
+
+    private static String key(Long userId, String category) {
+        return userId + ":" + category;
+    }
+
+    static Notification toNotification(NotificationRequest request, LocalDateTime now) {
+        Notification notification = new Notification();
+        notification.setUserId(request.getUserId());
+        notification.setMessage(request.getMessage());
+        notification.setTimestamp(now);
+        notification.setRead(false);
+        notification.setType(request.getType()); // Set the notification type
+        notification.setEventId(request.getEventId());
+        notification.setCategory(request.getCategory());
+        notification.setAmount(request.getAmount());
+        return notification;
+    }
+
+    static String digestMessage(String category, String type, int count, BigDecimal total) {
+        if (total == null) {
+            return String.format("You have %d new %s notifications.", count, type);
+        }
+        return switch (category) {
+            case "payment_received" -> String.format("You received %d payments totalling ₹%,.2f.", count, total);
+            case "payment_sent" -> String.format("You sent %d payments totalling ₹%,.2f.", count, total);
+            case "money_request" -> String.format("You have %d new money requests totalling ₹%,.2f.", count, total);
+            default -> String.format("You have %d new %s notifications totalling ₹%,.2f.", count, type, total);
+        };
+    }
+
+    private static BigDecimal plus(BigDecimal total, BigDecimal amount) {
+        return total == null || amount == null ? null : total.add(amount);
+    }
+
+    /** Rows one batch produced: plain and new digest rows to insert, and ids of digests incremented in place. */
+    public static class Batch {
+        private final List<Notification> inserts = new ArrayList<>();
+        private final Map<Long, Increment> increments = new LinkedHashMap<>(); // By digest id
+        private final Map<String, Notification> created = new HashMap<>(); // Digest this batch inserts per window key
+        private final List<Long> updatedIds = new ArrayList<>();
+        private final List<Member> members = new ArrayList<>();
+        private final Set<String> keys = new HashSet<>();
+
+        public List<Notification> getInserts() {
+            return inserts;
+        }
+
+        public List<Long> getUpdatedIds() {
+            return updatedIds;
+        }
+
+        private void addMember(NotificationRequest request, Notification digest) {
+            if (request.getEventId() != null) {
+                members.add(new Member(request.getEventId(), request.getUserId(), digest, null));
+            }
+        }
+
+        private void fold(String key, NotificationRequest request, LocalDateTime now, int count, BigDecimal total) {
+            Notification digest = created.get(key);
+            if (digest == null) {
+                digest = toNotification(request, now);
+                digest.setEventId(null); // Digests carry their events' ids as members
+                created.put(key, digest);
+                inserts.add(digest);
+            }
+            addMember(request, digest);
+            digest.setDigestCount(count);
+            digest.setAmount(total);
+            if (count > 1) {
+                digest.setMessage(digestMessage(request.getCategory(), request.getType(), count, total));
+            }
+        }
+
+        private void increment(String key, Long digestId, NotificationRequest request, int count, BigDecimal total) {
+            increments.computeIfAbsent(digestId, id -> new Increment(key, id, request)).add(request, count, total);
+        }
+    }
+
+    private static class Member {
+        private final String eventId;
+        private final Long userId;
+        private final Notification digest; // Set when the digest row is inserted by this batch
+        private final Long digestId;
+
+        Member(String eventId, Long userId, Notification digest, Long digestId) {
+            this.eventId = eventId;
+            this.userId = userId;
+            this.digest = digest;
+            this.digestId = digestId;
+        }
+    }
+
+    private static class Window {
+        private final long openedAt;
+        private Batch owner; // Batch inserting the current digest, until it has flushed
+        private Long digestId;
+        private int count;
+        private BigDecimal total = BigDecimal.ZERO;
+
+        Window(long openedAt) {
+            this.openedAt = openedAt;
+        }
+
+        void fold(String key, NotificationRequest request, LocalDateTime now, Batch batch) {
+            if (digestId == null && owner != batch) {
+                // First fold, or another batch's digest is not flushed yet: this batch starts its own
+                owner = batch;
+                count = 0;
+                total = BigDecimal.ZERO;
+                batch.created.remove(key);
+            }
+            count++;
+            total = plus(total, request.getAmount());
+            if (digestId != null) {
+                batch.increment(key, digestId, request, count, total);
+            } else {
+                batch.fold(key, request, now, count, total);
+            }
+        }
+
+        void seal(String key, Batch batch) {
+            owner = null;
+            digestId = null;
+            count = 0;
+            total = BigDecimal.ZERO;
+            batch.created.remove(key);
+        }
+
+        void restart(String key, Batch batch, Notification digest, int count, BigDecimal total) {
+            batch.created.put(key, digest);
+            this.owner = batch;
+            this.digestId = null;
+            this.count = count;
+            this.total = total;
+        }
+
+        void promote(String key, Batch batch) {
+            if (owner != batch) {
+                return;
+            }
+            Notification digest = batch.created.get(key);
+            if (digest != null && digest.getId() != null) {
+                digestId = digest.getId();
+            }
+            owner = null;
+        }
+    }
+
+    private static class Increment {
+        private final String key;
+        private final Long digestId;
+        private final Long userId;
+        private final String category;
+        private final String type;
+        private int delta;
+        private BigDecimal amount = BigDecimal.ZERO;
+        private String lastMessage;
+        private final List<String> eventIds = new ArrayList<>();
+        private int count;
+        private BigDecimal total;
+
+        Increment(String key, Long digestId, NotificationRequest request) {
+            this.key = key;
+            this.digestId = digestId;
+            this.userId = request.getUserId();
+            this.category = request.getCategory();
+            this.type = request.getType();
+        }
+
+        void add(NotificationRequest request, int count, BigDecimal total) {
+            delta++;
+            amount = plus(amount, request.getAmount());
+            lastMessage = request.getMessage();
+            if (request.getEventId() != null) {
+                eventIds.add(request.getEventId());
+            }
+            this.count = count;
+            this.total = total;
+        }
+
+        Notification toDigest(LocalDateTime now) {
+            Notification digest = new Notification();
+            digest.setUserId(userId);
+            digest.setMessage(delta == 1 ? lastMessage : digestMessage(category, type, delta, amount));
+            digest.setTimestamp(now);
+            digest.setRead(false);
+            digest.setType(type);
+            digest.setCategory(category);
+            digest.setAmount(amount);
+            digest.setDigestCount(delta);
+            return digest;
+        }
+    }
+}
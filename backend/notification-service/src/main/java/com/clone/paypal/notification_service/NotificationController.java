@@ -1,12 +1,20 @@
 package com.clone.paypal.notification_service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -15,21 +23,136 @@ public class NotificationController {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private NotificationPushRegistry notificationPushRegistry;
+
+    @Autowired
+    private NotificationInboxCache notificationInboxCache;
+
+    @Autowired
+    private NotificationRetentionCompactor notificationRetentionCompactor;
+
+    @Autowired
+    private NotificationRedeliveryService notificationRedeliveryService;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private NotificationDeliveryRepository notificationDeliveryRepository;
+
+    @Autowired
+    private NotificationPreferenceService notificationPreferenceService;
+
+    @Autowired
+    private NotificationDigestMemberRepository notificationDigestMemberRepository;
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_MARK_READ_IDS = 500;
+    private static final int MAX_REPLAY = 10000;
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamNotifications(@RequestHeader(value = "X-User-Id", required = false) Long userId) {
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        SseEmitter emitter = notificationPushRegistry.subscribe(userId);
+        long unreadCount = notificationInboxCache.unreadCount(userId);
+        notificationPushRegistry.send(userId, emitter, SseEmitter.event().name("unread-count").data(Map.of("unreadCount", unreadCount)));
+        return ResponseEntity.ok(emitter);
+    }
+
     @GetMapping("/user")
-    public ResponseEntity<?> getNotificationsByUserId(@RequestParam Long id) {
+    public ResponseEntity<?> getNotificationsByUserId(@RequestParam Long id,
+                                                      @RequestParam(defaultValue = "20") int limit,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "false") boolean unreadOnly,
+                                                      @RequestParam(required = false) String type) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
         try {
-            List<Notification> notifications = notificationRepository.findByUserIdOrderByTimestampDesc(id);
-            return ResponseEntity.ok(Map.of("notifications", notifications));
+            List<Notification> notifications = null;
+            if (cursor == null && !unreadOnly && type == null) {
+                // Unfiltered first page comes straight from the in-memory inbox
+                notifications = notificationInboxCache.recent(id, pageSize);
+            }
+            if (notifications == null) {
+                NotificationCursor position = NotificationCursor.parse(cursor);
+                notifications = notificationRepository.findPage(id, position.getTimestamp(), position.getId(),
+                        unreadOnly, type, PageRequest.of(0, pageSize));
+            }
+            Map<String, Object> body = new HashMap<>();
+            body.put("notifications", notifications);
+            body.put("nextCursor", NotificationCursor.next(notifications, pageSize));
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor"));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body(Map.of("error", "Failed to fetch notifications"));
         }
     }
 
+    @GetMapping("/retention/report")
+    public ResponseEntity<?> getRetentionReport() {
+        return ResponseEntity.ok(notificationRetentionCompactor.getLastReport());
+    }
+
+    @GetMapping("/preferences/{userId}")
+    public ResponseEntity<?> getPreferences(@PathVariable Long userId) {
+        try {
+            return ResponseEntity.ok(notificationPreferenceService.get(userId));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to fetch notification preferences"));
+        }
+    }
+
+    @PutMapping("/preferences/{userId}")
+    public ResponseEntity<?> updatePreferences(@PathVariable Long userId, @RequestBody List<NotificationPreference> preferences) {
+        if (preferences == null || preferences.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "preferences must not be empty"));
+        }
+        try {
+            List<NotificationPreference> updated = notificationPreferenceService.update(userId, preferences);
+            notificationPreferenceService.evict(userId);
+            notificationPushRegistry.publishPreferenceChange(userId);
+            return ResponseEntity.ok(updated);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to update notification preferences"));
+        }
+    }
+
+    @GetMapping("/dispatch/stats")
+    public ResponseEntity<?> getDispatchStats() {
+        return ResponseEntity.ok(notificationDispatcher.stats());
+    }
+
+    @GetMapping("/{id}/deliveries")
+    public ResponseEntity<?> getDeliveries(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(notificationDeliveryRepository.findByNotificationIdOrderByIdAsc(id));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to fetch delivery status"));
+        }
+    }
+
+    @PostMapping("/dead-letters/replay")
+    public ResponseEntity<?> replayDeadLetters(@RequestParam(defaultValue = "1000") int max) {
+        try {
+            int replayed = notificationRedeliveryService.replay(Math.max(1, Math.min(max, MAX_REPLAY)));
+            return ResponseEntity.ok(Map.of("replayed", replayed));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to replay dead-lettered notifications"));
+        }
+    }
+
     @GetMapping("/user/{userId}/unread-count")
     public ResponseEntity<?> getUnreadNotificationCount(@PathVariable Long userId) {
         try {
-            long unreadCount = notificationRepository.countByUserIdAndReadIsFalse(userId);
+            long unreadCount = notificationInboxCache.unreadCount(userId);
             return ResponseEntity.ok(Map.of("unreadCount", unreadCount));
         } catch (Exception e) {
             e.printStackTrace();
@@ -43,8 +166,10 @@ public class NotificationController {
             Optional<Notification> notificationOptional = notificationRepository.findById(id);
             if (notificationOptional.isPresent()) {
                 Notification notification = notificationOptional.get();
-                notification.setRead(true);
-                notificationRepository.save(notification);
+                if (notificationRepository.markRead(notification.getUserId(), List.of(id)) > 0) {
+                    notificationInboxCache.onRead(notification.getUserId(), List.of(id), 1);
+                    notificationPushRegistry.publishInboxChange(notification.getUserId());
+                }
                 return ResponseEntity.ok(Map.of("message", "Notification marked as read"));
             } else {
                 return ResponseEntity.notFound().build();
@@ -58,21 +183,50 @@ public class NotificationController {
     @PutMapping("/user/{userId}/read-all")
     public ResponseEntity<?> markAllNotificationsAsRead(@PathVariable Long userId) {
         try {
-            List<Notification> notifications = notificationRepository.findByUserIdOrderByTimestampDesc(userId);
-            notifications.forEach(notification -> notification.setRead(true));
-            notificationRepository.saveAll(notifications);
-            return ResponseEntity.ok(Map.of("message", "All notifications marked as read"));
+            int updated = notificationRepository.markAllRead(userId);
+            notificationInboxCache.onReadAll(userId);
+            if (updated > 0) {
+                notificationPushRegistry.publishInboxChange(userId);
+            }
+            return ResponseEntity.ok(Map.of("message", "All notifications marked as read", "updated", updated));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body(Map.of("error", "Failed to mark all notifications as read"));
         }
     }
 
+    @PutMapping("/user/{userId}/read")
+    public ResponseEntity<?> markNotificationsAsRead(@PathVariable Long userId, @RequestBody MarkReadRequest request) {
+        if (request.getIds() == null || request.getIds().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "ids must not be empty"));
+        }
+        if (request.getIds().size() > MAX_MARK_READ_IDS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + MAX_MARK_READ_IDS + " ids per call"));
+        }
+        try {
+            Set<Long> ids = new HashSet<>(request.getIds());
+            int updated = notificationRepository.markRead(userId, ids);
+            if (updated > 0) {
+                notificationInboxCache.onRead(userId, ids, updated);
+                notificationPushRegistry.publishInboxChange(userId);
+            }
+            return ResponseEntity.ok(Map.of("message", "Notifications marked as read", "updated", updated));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to mark notifications as read"));
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteNotification(@PathVariable Long id) {
         try {
-            if (notificationRepository.existsById(id)) {
-                notificationRepository.deleteById(id);
+            Optional<Notification> notificationOptional = notificationRepository.findById(id);
+            if (notificationOptional.isPresent()) {
+                Notification notification = notificationOptional.get();
+                notificationRepository.delete(notification);
+                notificationDigestMemberRepository.deleteByNotificationIds(List.of(id));
+                notificationInboxCache.onDeleted(notification.getUserId(), id, !notification.isRead());
+                notificationPushRegistry.publishInboxChange(notification.getUserId());
                 return ResponseEntity.ok(Map.of("message", "Notification deleted successfully"));
             } else {
                 return ResponseEntity.notFound().build();
@@ -87,6 +241,10 @@ public class NotificationController {
     @Transactional
     public ResponseEntity<Void> deleteNotificationsByUserId(@PathVariable Long userId) {
         notificationRepository.deleteByUserId(userId);
+        notificationDeliveryRepository.deleteByUserId(userId);
+        notificationDigestMemberRepository.deleteByUserId(userId);
+        notificationInboxCache.evict(userId);
+        notificationPushRegistry.publishInboxChange(userId);
         return ResponseEntity.ok().build();
     }
 }
\ No newline at end of file
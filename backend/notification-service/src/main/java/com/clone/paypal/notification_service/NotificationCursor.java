@@ -0,0 +1,50 @@
+package com.clone.paypal.notification_service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque keyset cursor over (timestamp, id); a null cursor starts from the newest notification.
+ */
+public final class NotificationCursor {
+    private static final LocalDateTime FIRST_PAGE_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    private NotificationCursor(LocalDateTime timestamp, Long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public static NotificationCursor parse(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return new NotificationCursor(FIRST_PAGE_TIMESTAMP, Long.MAX_VALUE);
+        }
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return new NotificationCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+    }
+
+    /** Cursor after the last element, or null when the page was not full. */
+    public static String next(List<Notification> page, int limit) {
+        if (page.size() < limit) {
+            return null;
+        }
+        Notification last = page.get(page.size() - 1);
+        String raw = last.getTimestamp() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
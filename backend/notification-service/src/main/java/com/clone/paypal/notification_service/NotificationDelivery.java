@@ -0,0 +1,114 @@
+package com.clone.paypal.notification_service;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of sending one notification over one external channel.
+ */
+@Entity
+@Table(name = "notification_delivery", indexes = {
+        @Index(name = "idx_delivery_notification", columnList = "notificationId"),
+        @Index(name = "idx_delivery_user", columnList = "userId"),
+        @Index(name = "idx_delivery_created", columnList = "createdAt")
+})
+public class NotificationDelivery {
+    public static final String SENT = "SENT";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_delivery_seq")
+    @SequenceGenerator(name = "notification_delivery_seq", sequenceName = "notification_delivery_seq", allocationSize = 50)
+    private Long id;
+    private Long notificationId;
+    private Long userId;
+    private String channel;
+    private String status;
+    private int attempts;
+    private String lastError;
+    private LocalDateTime createdAt;
+
+    public NotificationDelivery() {
+    }
+
+    public NotificationDelivery(Long notificationId, Long userId, String channel, String status, int attempts,
+                                String lastError, LocalDateTime createdAt) {
+        this.notificationId = notificationId;
+        this.userId = userId;
+        this.channel = channel;
+        this.status = status;
+        this.attempts = attempts;
+        this.lastError = lastError;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getNotificationId() {
+        return notificationId;
+    }
+
+    public void setNotificationId(Long notificationId) {
+        this.notificationId = notificationId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void setChannel(String channel) {
+        this.channel = channel;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
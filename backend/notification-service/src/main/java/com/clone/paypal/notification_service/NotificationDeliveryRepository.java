@@ -0,0 +1,22 @@
+package com.clone.paypal.notification_service;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NotificationDeliveryRepository extends JpaRepository<NotificationDelivery, Long> {
+    List<NotificationDelivery> findByNotificationIdOrderByIdAsc(Long notificationId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from NotificationDelivery d where d.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Query("select d.id from NotificationDelivery d where d.createdAt < :cutoff")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
@@ -0,0 +1,71 @@
+package com.clone.paypal.notification_service;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * Event id of a notification folded into a digest row, kept so a redelivered event is still recognised
+ * as stored. Lives as long as the digest it points to.
+ */
+@Entity
+@Table(name = "notification_digest_member", indexes = {
+        @Index(name = "idx_digest_member_notification", columnList = "notificationId"),
+        @Index(name = "idx_digest_member_user", columnList = "userId")
+})
+public class NotificationDigestMember {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_digest_member_seq")
+    @SequenceGenerator(name = "notification_digest_member_seq", sequenceName = "notification_digest_member_seq", allocationSize = 50)
+    private Long id;
+    @Column(unique = true, length = 36, nullable = false)
+    private String eventId;
+    private Long notificationId;
+    private Long userId;
+
+    public NotificationDigestMember() {
+    }
+
+    public NotificationDigestMember(String eventId, Long notificationId, Long userId) {
+        this.eventId = eventId;
+        this.notificationId = notificationId;
+        this.userId = userId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public Long getNotificationId() {
+        return notificationId;
+    }
+
+    public void setNotificationId(Long notificationId) {
+        this.notificationId = notificationId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+}
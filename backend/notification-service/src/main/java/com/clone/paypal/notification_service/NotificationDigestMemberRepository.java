@@ -0,0 +1,24 @@
+package com.clone.paypal.notification_service;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationDigestMemberRepository extends JpaRepository<NotificationDigestMember, Long> {
+    @Query("select m.eventId from NotificationDigestMember m where m.eventId in :eventIds")
+    List<String> findExistingEventIds(@Param("eventIds") Collection<String> eventIds);
+
+    @Transactional
+    @Modifying
+    @Query("delete from NotificationDigestMember m where m.notificationId in :notificationIds")
+    int deleteByNotificationIds(@Param("notificationIds") Collection<Long> notificationIds);
+
+    @Transactional
+    @Modifying
+    @Query("delete from NotificationDigestMember m where m.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
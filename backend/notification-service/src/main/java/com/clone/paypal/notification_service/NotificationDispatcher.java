@@ -0,0 +1,103 @@
+package com.clone.paypal.notification_service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans stored notifications out to external channels. Routes come from
+ * {@code notifications.dispatch.routes.<type>} (type lower-cased, spaces as dashes), falling back to
+ * {@code default-channels}; each channel has its own {@link ChannelWorker}, so handing off never blocks.
+ */
+@Component
+public class NotificationDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+    private static final String PREFIX = "notifications.dispatch.";
+
+    @Autowired(required = false)
+    private List<ChannelAdapter> adapters = List.of();
+
+    @Autowired
+    private NotificationDeliveryRepository notificationDeliveryRepository;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private NotificationPreferenceService notificationPreferenceService;
+
+    @Value("${notifications.dispatch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notifications.dispatch.default-channels:push}")
+    private String defaultChannels;
+
+    private final Map<String, ChannelWorker> workers = new LinkedHashMap<>();
+    private final Map<String, List<String>> routes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (ChannelAdapter adapter : adapters) {
+            String channel = adapter.channel();
+            ChannelWorker worker = new ChannelWorker(adapter, notificationDeliveryRepository,
+                    channelSetting(channel, "workers", Integer.class, 1),
+                    channelSetting(channel, "queue-capacity", Integer.class, 10000),
+                    channelSetting(channel, "batch-size", Integer.class, 50),
+                    channelSetting(channel, "linger-ms", Long.class, 200L),
+                    channelSetting(channel, "rate-per-second", Double.class, 0.0),
+                    channelSetting(channel, "max-attempts", Integer.class, 3),
+                    channelSetting(channel, "retry-backoff-ms", Long.class, 1000L));
+            workers.put(channel, worker);
+            worker.start();
+        }
+        logger.info("Notification dispatch channels: {}", workers.keySet());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.values().forEach(worker -> worker.stop(5000));
+    }
+
+    public void dispatch(Collection<Notification> notifications) {
+        if (!enabled) {
+            return;
+        }
+        for (Notification notification : notifications) {
+            for (String channel : channelsFor(notification.getType())) {
+                ChannelWorker worker = workers.get(channel);
+                if (worker != null && notificationPreferenceService.allowsChannel(notification.getUserId(), notification.getType(), channel)) {
+                    worker.offer(notification);
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        workers.forEach((channel, worker) -> stats.put(channel, worker.stats()));
+        return stats;
+    }
+
+    public List<String> channelsFor(String type) {
+        return routes.computeIfAbsent(NotificationPreferenceService.typeKey(type), k -> {
+            String configured = k.isEmpty() ? null : environment.getProperty(PREFIX + "routes." + k);
+            String value = configured != null ? configured : defaultChannels;
+            return Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+        });
+    }
+
+    private <T> T channelSetting(String channel, String name, Class<T> type, T defaultValue) {
+        return environment.getProperty(PREFIX + "channels." + channel + "." + name, type, defaultValue);
+    }
+}
@@ -0,0 +1,107 @@
+package com.clone.paypal.notification_service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Per-user inboxes loaded lazily from the database and kept current on consume, read,
+ * read-all and delete, so badge counts and first pages are answered from memory.
+ * Users idle for longer than the configured window, or beyond the size bound, are evicted.
+ */
+@Component
+public class NotificationInboxCache {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Value("${notifications.inbox.size:50}")
+    private int inboxSize;
+
+    @Value("${notifications.inbox.max-users:100000}")
+    private long maxUsers;
+
+    @Value("${notifications.inbox.idle-minutes:30}")
+    private long idleMinutes;
+
+    private LoadingCache<Long, UserInbox> inboxes;
+
+    @PostConstruct
+    void init() {
+        inboxes = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build(this::load);
+    }
+
+    private UserInbox load(Long userId) {
+        List<Notification> recent = notificationRepository.findByUserIdOrderByTimestampDescIdDesc(userId, PageRequest.of(0, inboxSize));
+        return new UserInbox(inboxSize, recent, notificationRepository.countByUserIdAndReadIsFalse(userId));
+    }
+
+    public int getInboxSize() {
+        return inboxSize;
+    }
+
+    public long unreadCount(Long userId) {
+        return inboxes.get(userId).getUnreadCount();
+    }
+
+    /** Newest notifications from memory, or null if the request reaches past the buffer. */
+    public List<Notification> recent(Long userId, int limit) {
+        return limit > inboxSize ? null : inboxes.get(userId).recent(limit);
+    }
+
+    public void onStored(List<Notification> notifications) {
+        // Only users with a loaded inbox are touched; computeIfPresent waits for an in-flight load
+        for (Notification notification : notifications) {
+            inboxes.asMap().computeIfPresent(notification.getUserId(), (userId, inbox) -> {
+                inbox.add(notification);
+                return inbox;
+            });
+        }
+    }
+
+    /** Swaps in digests that grew; their unread state is unchanged, so counts stay as they are. */
+    public void onUpdated(List<Notification> notifications) {
+        for (Notification notification : notifications) {
+            UserInbox inbox = inboxes.getIfPresent(notification.getUserId());
+            if (inbox != null) {
+                inbox.replace(notification);
+            }
+        }
+    }
+
+    public void onRead(Long userId, Collection<Long> notificationIds, long affected) {
+        UserInbox inbox = inboxes.getIfPresent(userId);
+        if (inbox != null) {
+            inbox.markRead(notificationIds, affected);
+        }
+    }
+
+    public void onReadAll(Long userId) {
+        UserInbox inbox = inboxes.getIfPresent(userId);
+        if (inbox != null) {
+            inbox.markAllRead();
+        }
+    }
+
+    public void onDeleted(Long userId, Long notificationId, boolean wasUnread) {
+        UserInbox inbox = inboxes.getIfPresent(userId);
+        if (inbox != null && !inbox.remove(notificationId, wasUnread)) {
+            // A partial buffer would now serve a short first page; reload on next access
+            inboxes.invalidate(userId);
+        }
+    }
+
+    public void evict(Long userId) {
+        inboxes.invalidate(userId);
+    }
+}
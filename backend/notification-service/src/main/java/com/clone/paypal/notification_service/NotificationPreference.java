@@ -0,0 +1,100 @@
+package com.clone.paypal.notification_service;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * A user's choice for one notification type. Only deviations from the default (everything on) are stored;
+ * turning inApp off mutes the type entirely, since external channels only send stored notifications.
+ */
+@Entity
+@Table(name = "notification_preference", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_preference_user_type", columnNames = {"userId", "type"})
+})
+public class NotificationPreference {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long userId;
+    private String type; // Normalised key, e.g. 'transaction', 'money-request', 'system'
+    private boolean inApp = true;
+    private boolean email = true;
+    private boolean sms = true;
+    private boolean push = true;
+
+    public NotificationPreference() {
+    }
+
+    public boolean allowsChannel(String channel) {
+        return switch (channel) {
+            case "email" -> email;
+            case "sms" -> sms;
+            case "push" -> push;
+            default -> true;
+        };
+    }
+
+    public boolean isDefault() {
+        return inApp && email && sms && push;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public boolean isInApp() {
+        return inApp;
+    }
+
+    public void setInApp(boolean inApp) {
+        this.inApp = inApp;
+    }
+
+    public boolean isEmail() {
+        return email;
+    }
+
+    public void setEmail(boolean email) {
+        this.email = email;
+    }
+
+    public boolean isSms() {
+        return sms;
+    }
+
+    public void setSms(boolean sms) {
+        this.sms = sms;
+    }
+
+    public boolean isPush() {
+        return push;
+    }
+
+    public void setPush(boolean push) {
+        this.push = push;
+    }
+}
@@ -0,0 +1,20 @@
+package com.clone.paypal.notification_service;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationPreferenceRepository extends JpaRepository<NotificationPreference, Long> {
+    List<NotificationPreference> findByUserId(Long userId);
+
+    List<NotificationPreference> findByUserIdIn(Collection<? extends Long> userIds);
+
+    @Transactional
+    @Modifying
+    @Query("delete from NotificationPreference p where p.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,132 @@
+package com.clone.paypal.notification_service;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-user notification preferences, cached in memory and loaded in bulk for each consumed batch.
+ * Users without stored preferences cache an empty map, so the common case never reaches the database.
+ */
+@Service
+public class NotificationPreferenceService {
+
+    @Autowired
+    private NotificationPreferenceRepository notificationPreferenceRepository;
+
+    @Value("${notifications.preferences.max-users:200000}")
+    private long maxUsers;
+
+    @Value("${notifications.preferences.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    private LoadingCache<Long, Map<String, NotificationPreference>> preferences;
+
+    @PostConstruct
+    void init() {
+        preferences = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes)) // Bounds staleness if an eviction message is missed
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Map<String, NotificationPreference> load(Long userId) {
+                        return byType(notificationPreferenceRepository.findByUserId(userId));
+                    }
+
+                    @Override
+                    public Map<Long, Map<String, NotificationPreference>> loadAll(Set<? extends Long> userIds) {
+                        Map<Long, Map<String, NotificationPreference>> loaded = new HashMap<>();
+                        for (Long userId : userIds) {
+                            loaded.put(userId, new HashMap<>());
+                        }
+                        for (NotificationPreference preference : notificationPreferenceRepository.findByUserIdIn(userIds)) {
+                            loaded.get(preference.getUserId()).put(preference.getType(), preference);
+                        }
+                        return loaded;
+                    }
+                });
+    }
+
+    public static String typeKey(String type) {
+        return type == null ? "" : type.trim().toLowerCase().replace(' ', '-');
+    }
+
+    /** Loads every missing user of a batch with one query. */
+    public void preload(Collection<Long> userIds) {
+        preferences.getAll(userIds);
+    }
+
+    public boolean allowsInApp(Long userId, String type) {
+        NotificationPreference preference = preferences.get(userId).get(typeKey(type));
+        return preference == null || preference.isInApp();
+    }
+
+    public boolean allowsChannel(Long userId, String type, String channel) {
+        NotificationPreference preference = preferences.get(userId).get(typeKey(type));
+        return preference == null || preference.allowsChannel(channel);
+    }
+
+    public List<NotificationPreference> get(Long userId) {
+        return List.copyOf(preferences.get(userId).values());
+    }
+
+    @Transactional
+    public List<NotificationPreference> update(Long userId, List<NotificationPreference> updates) {
+        Map<String, NotificationPreference> existing = byType(notificationPreferenceRepository.findByUserId(userId));
+        for (NotificationPreference update : updates) {
+            String type = typeKey(update.getType());
+            if (type.isEmpty()) {
+                continue;
+            }
+            NotificationPreference preference = existing.get(type);
+            if (update.isDefault()) {
+                // Back to the default, so nothing needs to be stored
+                if (preference != null) {
+                    notificationPreferenceRepository.delete(preference);
+                    existing.remove(type);
+                }
+                continue;
+            }
+            if (preference == null) {
+                preference = new NotificationPreference();
+                preference.setUserId(userId);
+                preference.setType(type);
+            }
+            preference.setInApp(update.isInApp());
+            preference.setEmail(update.isEmail());
+            preference.setSms(update.isSms());
+            preference.setPush(update.isPush());
+            existing.put(type, notificationPreferenceRepository.save(preference));
+        }
+        return List.copyOf(existing.values()); // Callers evict once this has committed
+    }
+
+    @Transactional
+    public void deleteAll(Long userId) {
+        notificationPreferenceRepository.deleteByUserId(userId);
+        preferences.invalidate(userId);
+    }
+
+    public void evict(Long userId) {
+        preferences.invalidate(userId);
+    }
+
+    private static Map<String, NotificationPreference> byType(List<NotificationPreference> stored) {
+        Map<String, NotificationPreference> byType = new HashMap<>();
+        for (NotificationPreference preference : stored) {
+            byType.put(preference.getType(), preference);
+        }
+        return byType;
+    }
+}
@@ -0,0 +1,70 @@
+package com.clone.paypal.notification_service;
+
+import java.util.List;
+
+/**
+ * Inbox changes made by one instance, fanned out so every instance can push new and grown digest notifications
+ * to its own subscribers and drop cached inboxes and preferences that were changed elsewhere.
+ */
+public class NotificationPushEvent {
+    private String origin;
+    private List<Notification> notifications;
+    private List<Long> evictedUserIds;
+    private List<Long> preferenceUserIds;
+    private List<Notification> updatedNotifications;
+
+    public NotificationPushEvent() {
+    }
+
+    public NotificationPushEvent(String origin, List<Notification> notifications, List<Long> evictedUserIds) {
+        this.origin = origin;
+        this.notifications = notifications;
+        this.evictedUserIds = evictedUserIds;
+    }
+
+    public NotificationPushEvent(String origin, List<Notification> notifications, List<Long> evictedUserIds,
+                                 List<Long> preferenceUserIds) {
+        this(origin, notifications, evictedUserIds);
+        this.preferenceUserIds = preferenceUserIds;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public List<Notification> getNotifications() {
+        return notifications;
+    }
+
+    public void setNotifications(List<Notification> notifications) {
+        this.notifications = notifications;
+    }
+
+    public List<Long> getEvictedUserIds() {
+        return evictedUserIds;
+    }
+
+    public void setEvictedUserIds(List<Long> evictedUserIds) {
+        this.evictedUserIds = evictedUserIds;
+    }
+
+    public List<Long> getPreferenceUserIds() {
+        return preferenceUserIds;
+    }
+
+    public void setPreferenceUserIds(List<Long> preferenceUserIds) {
+        this.preferenceUserIds = preferenceUserIds;
+    }
+
+    public List<Notification> getUpdatedNotifications() {
+        return updatedNotifications;
+    }
+
+    public void setUpdatedNotifications(List<Notification> updatedNotifications) {
+        this.updatedNotifications = updatedNotifications;
+    }
+}
@@ -0,0 +1,182 @@
+package com.clone.paypal.notification_service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user registry of open SSE streams. Idle streams hold no request thread (servlet async),
+ * so an instance can keep tens of thousands open; a periodic heartbeat clears dead ones.
+ * Stored notifications are pushed locally and fanned out over notification_push so users
+ * connected to other instances receive them too; the same topic carries inbox and preference cache evictions.
+ * Writes to streams run on a small bounded pool, never on the caller's thread; when it falls behind,
+ * live updates are dropped and clients catch up from the inbox when they reconnect.
+ */
+@Component
+public class NotificationPushRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPushRegistry.class);
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Autowired
+    private NotificationInboxCache notificationInboxCache;
+
+    @Autowired
+    private NotificationPreferenceService notificationPreferenceService;
+
+    @Value("${notifications.push.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    @Value("${notifications.push.fanout-threads:4}")
+    private int fanoutThreads;
+
+    @Value("${notifications.push.fanout-queue-capacity:10000}")
+    private int fanoutQueueCapacity;
+
+    private ThreadPoolExecutor fanout;
+    private final AtomicLong dropped = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        fanout = new ThreadPoolExecutor(fanoutThreads, fanoutThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fanoutQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "push-fanout-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> {
+                    if (dropped.incrementAndGet() % 1000 == 1) {
+                        logger.warn("Push fan-out queue is full; {} live updates dropped so far", dropped.get());
+                    }
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fanout.shutdown();
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMinutes * 60_000);
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(emitter);
+        Runnable remove = () -> unsubscribe(userId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    /** Call after the notifications are committed, so clients never see one that rolled back. */
+    public void publish(List<Notification> notifications, List<Notification> updated) {
+        deliver(notifications, "notification");
+        deliver(updated, "notification-updated");
+        NotificationPushEvent event = new NotificationPushEvent(instanceId, notifications, List.of());
+        event.setUpdatedNotifications(updated);
+        kafkaProducerService.sendPushEvent(event);
+    }
+
+    /** Tells the other instances to drop their cached inbox of this user after a read or delete. */
+    public void publishInboxChange(Long userId) {
+        kafkaProducerService.sendPushEvent(new NotificationPushEvent(instanceId, List.of(), List.of(userId)));
+    }
+
+    /** Tells the other instances to reload this user's preferences. */
+    public void publishPreferenceChange(Long userId) {
+        kafkaProducerService.sendPushEvent(new NotificationPushEvent(instanceId, List.of(), List.of(), List.of(userId)));
+    }
+
+    @KafkaListener(topics = "notification_push", groupId = "notification-push-${random.uuid}",
+            properties = {"auto.offset.reset=latest",
+                    "spring.json.value.default.type=com.clone.paypal.notification_service.NotificationPushEvent"})
+    public void onPushEvent(NotificationPushEvent event) {
+        if (instanceId.equals(event.getOrigin())) {
+            return;
+        }
+        if (event.getEvictedUserIds() != null) {
+            event.getEvictedUserIds().forEach(notificationInboxCache::evict);
+        }
+        if (event.getPreferenceUserIds() != null) {
+            event.getPreferenceUserIds().forEach(notificationPreferenceService::evict);
+        }
+        if (event.getNotifications() != null) {
+            notificationInboxCache.onStored(event.getNotifications());
+            deliver(event.getNotifications(), "notification");
+        }
+        if (event.getUpdatedNotifications() != null) {
+            notificationInboxCache.onUpdated(event.getUpdatedNotifications());
+            deliver(event.getUpdatedNotifications(), "notification-updated");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.push.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        subscribers.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                send(userId, emitter, SseEmitter.event().comment("heartbeat"));
+            }
+        });
+    }
+
+    // One task per connected user keeps each user's updates in order
+    private void deliver(List<Notification> notifications, String eventName) {
+        Map<Long, List<Notification>> byUser = new LinkedHashMap<>();
+        for (Notification notification : notifications) {
+            if (subscribers.containsKey(notification.getUserId())) {
+                byUser.computeIfAbsent(notification.getUserId(), id -> new ArrayList<>()).add(notification);
+            }
+        }
+        byUser.forEach((userId, userNotifications) -> fanout.execute(() -> {
+            Set<SseEmitter> emitters = subscribers.get(userId);
+            if (emitters == null) {
+                return;
+            }
+            for (Notification notification : userNotifications) {
+                for (SseEmitter emitter : emitters) {
+                    send(userId, emitter, SseEmitter.event().name(eventName).data(notification));
+                }
+            }
+        }));
+    }
+
+    public void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping closed stream of user {}", userId);
+            unsubscribe(userId, emitter);
+        }
+    }
+
+    private void unsubscribe(Long userId, SseEmitter emitter) {
+        subscribers.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,134 @@
+package com.clone.paypal.notification_service;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Stores notifications one at a time after their batch failed. Each failure moves the record to the next
+ * retry topic with a longer delay, and the last one parks it on the dead-letter topic until it is replayed.
+ */
+@Service
+public class NotificationRedeliveryService {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRedeliveryService.class);
+    public static final String DEAD_LETTER_TOPIC = KafkaProducerService.REDELIVERY_TOPIC + "-dlt";
+    private static final int MAX_REPLAY_POLL = 500;
+    private static final Duration MAX_REPLAY_TIME = Duration.ofMinutes(1);
+
+    @Autowired
+    private NotificationWriter notificationWriter;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Autowired
+    private ConsumerFactory<String, NotificationRequest> consumerFactory;
+
+    @RetryableTopic(attempts = "${notifications.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${notifications.retry.initial-delay-ms:1000}",
+                    multiplierExpression = "${notifications.retry.multiplier:4}",
+                    maxDelayExpression = "${notifications.retry.max-delay-ms:60000}"),
+            retryTopicSuffix = "-retry", dltTopicSuffix = "-dlt",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            numPartitions = "${notifications.topic.partitions:3}", replicationFactor = "1")
+    @KafkaListener(topics = KafkaProducerService.REDELIVERY_TOPIC, groupId = "notification_redelivery_group",
+            concurrency = "${notifications.retry.concurrency:1}")
+    public void redeliver(NotificationRequest notificationRequest) {
+        try {
+            notificationWriter.store(List.of(notificationRequest));
+        } catch (DataIntegrityViolationException e) {
+            logger.info("Notification event {} was already stored", notificationRequest.getEventId());
+        }
+    }
+
+    @DltHandler
+    public void onDeadLetter(NotificationRequest notificationRequest,
+                             @Header(name = KafkaHeaders.EXCEPTION_MESSAGE, required = false) String error) {
+        logger.error("Notification for user {} moved to {} after all retries: {}",
+                notificationRequest == null ? null : notificationRequest.getUserId(), DEAD_LETTER_TOPIC, error);
+    }
+
+    /**
+     * Sends up to {@code max} dead-lettered notifications back through redelivery and commits past them.
+     * Partitions are assigned directly and read up to their end offsets as of the start of the call, so
+     * the result does not depend on how long a group rebalance takes.
+     */
+    public int replay(int max) {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.min(max, MAX_REPLAY_POLL));
+
+        int replayed = 0;
+        try (Consumer<String, NotificationRequest> consumer =
+                     consumerFactory.createConsumer("notification_dlt_replay", null, null, overrides)) {
+            List<PartitionInfo> partitionInfos = consumer.partitionsFor(DEAD_LETTER_TOPIC);
+            if (partitionInfos == null || partitionInfos.isEmpty()) {
+                return 0;
+            }
+            List<TopicPartition> partitions = new ArrayList<>(partitionInfos.size());
+            for (PartitionInfo partitionInfo : partitionInfos) {
+                partitions.add(new TopicPartition(partitionInfo.topic(), partitionInfo.partition()));
+            }
+            // Starts from the group's committed offsets, or the beginning if nothing was replayed yet
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            long deadline = System.nanoTime() + MAX_REPLAY_TIME.toNanos();
+            while (replayed < max && !caughtUp(consumer, endOffsets) && System.nanoTime() < deadline) {
+                ConsumerRecords<String, NotificationRequest> records = consumer.poll(Duration.ofSeconds(1));
+                if (records.isEmpty()) {
+                    continue;
+                }
+                List<NotificationRequest> batch = new ArrayList<>();
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                for (ConsumerRecord<String, NotificationRequest> record : records) {
+                    if (replayed + batch.size() >= max) {
+                        break;
+                    }
+                    if (record.value() != null) {
+                        batch.add(record.value());
+                    }
+                    offsets.put(new TopicPartition(record.topic(), record.partition()), new OffsetAndMetadata(record.offset() + 1));
+                }
+                kafkaProducerService.sendForRedelivery(batch);
+                consumer.commitSync(offsets);
+                replayed += batch.size();
+            }
+        }
+        logger.info("Replayed {} dead-lettered notifications", replayed);
+        return replayed;
+    }
+
+    private static boolean caughtUp(Consumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> entry : endOffsets.entrySet()) {
+            if (consumer.position(entry.getKey()) < entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
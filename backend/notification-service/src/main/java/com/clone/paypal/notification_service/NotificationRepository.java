@@ -1,10 +1,62 @@
 package com.clone.paypal.notification_service;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByUserIdOrderByTimestampDesc(Long userId);
+    List<Notification> findByUserIdOrderByTimestampDescIdDesc(Long userId, Pageable pageable);
+
+    // Keyset page ordered by (timestamp, id) descending, walking idx_notification_user_ts_id
+    @Query("select n from Notification n where n.userId = :userId " +
+            "and (n.timestamp < :ts or (n.timestamp = :ts and n.id < :id)) " +
+            "and (:unreadOnly = false or n.read = false) and (:type is null or n.type = :type) " +
+            "order by n.timestamp desc, n.id desc")
+    List<Notification> findPage(@Param("userId") Long userId, @Param("ts") LocalDateTime ts, @Param("id") Long id,
+                                @Param("unreadOnly") boolean unreadOnly, @Param("type") String type, Pageable pageable);
     void deleteByUserId(Long userId);
     long countByUserIdAndReadIsFalse(Long userId);
-}
\ No newline at end of file
+
+    @Transactional
+    @Modifying
+    @Query("update Notification n set n.read = true where n.userId = :userId and n.read = false")
+    int markAllRead(@Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("update Notification n set n.read = true where n.userId = :userId and n.id in :ids and n.read = false")
+    int markRead(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Query("select n.id, n.userId from Notification n where n.read = true and n.timestamp < :cutoff")
+    List<Object[]> findReadBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Query("select n.userId from Notification n group by n.userId having count(n) > :cap")
+    List<Long> findUserIdsOverCap(@Param("cap") long cap);
+
+    @Query("select n from Notification n where n.userId = :userId order by n.timestamp desc, n.id desc")
+    List<Notification> findNewestFirst(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select n.id from Notification n where n.userId = :userId " +
+            "and (n.timestamp < :ts or (n.timestamp = :ts and n.id <= :id))")
+    List<Long> findIdsAtOrBefore(@Param("userId") Long userId, @Param("ts") LocalDateTime ts, @Param("id") Long id, Pageable pageable);
+
+    // Only unread digests grow, so folding never changes a user's unread count
+    @Modifying(clearAutomatically = true)
+    @Query("update Notification n set n.digestCount = n.digestCount + :delta, n.amount = n.amount + :amount, " +
+            "n.message = :message where n.id = :id and n.read = false")
+    int incrementDigest(@Param("id") Long id, @Param("delta") int delta, @Param("amount") BigDecimal amount,
+                        @Param("message") String message);
+
+    @Query("select n.eventId from Notification n where n.eventId in :eventIds")
+    List<String> findExistingEventIds(@Param("eventIds") Collection<String> eventIds);
+
+    @Query("select n.id from Notification n where n.userId = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+}
@@ -1,9 +1,14 @@
 package com.clone.paypal.notification_service;
 
+import java.math.BigDecimal;
+
 public class NotificationRequest {
+    private String eventId; // Stamped by the producer; absent on digests
     private Long userId;
     private String message;
     private String type;
+    private String category; // Notifications with a category may be merged into a digest
+    private BigDecimal amount;
 
     // Getters and Setters
     public Long getUserId() {
@@ -29,4 +34,28 @@ public class NotificationRequest {
     public void setType(String type) {
         this.type = type;
     }
-}
\ No newline at end of file
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+}
@@ -0,0 +1,153 @@
+package com.clone.paypal.notification_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Enforces notification retention inside a nightly window: read notifications older than
+ * the retention period are dropped, then every user is trimmed to the per-user cap, and old
+ * delivery records are cleared. Deletes run in small chunks and a run stops at its time budget,
+ * resuming on the next trigger.
+ */
+@Component
+public class NotificationRetentionCompactor {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetentionCompactor.class);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationInboxCache notificationInboxCache;
+
+    @Autowired
+    private NotificationPushRegistry notificationPushRegistry;
+
+    @Autowired
+    private NotificationDeliveryRepository notificationDeliveryRepository;
+
+    @Autowired
+    private NotificationDigestMemberRepository notificationDigestMemberRepository;
+
+    @Value("${notifications.retention.read-days:30}")
+    private long readRetentionDays;
+
+    @Value("${notifications.retention.max-per-user:500}")
+    private long maxPerUser;
+
+    @Value("${notifications.retention.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${notifications.retention.delivery-days:7}")
+    private long deliveryRetentionDays;
+
+    @Value("${notifications.retention.max-run-seconds:300}")
+    private long maxRunSeconds;
+
+    private volatile Map<String, Object> lastReport = Map.of("status", "not run yet");
+
+    @Scheduled(cron = "${notifications.retention.cron:0 */15 2-4 * * *}", zone = "Asia/Kolkata")
+    public void compact() {
+        LocalDateTime startedAt = LocalDateTime.now(ZoneId.of("Asia/Kolkata"));
+        long deadline = System.nanoTime() + Duration.ofSeconds(maxRunSeconds).toNanos();
+        Set<Long> touchedUsers = new HashSet<>();
+
+        long expired = deleteExpiredRead(startedAt.minusDays(readRetentionDays), deadline, touchedUsers);
+        long trimmed = trimToCap(deadline, touchedUsers);
+        long deliveries = deleteOldDeliveries(startedAt.minusDays(deliveryRetentionDays), deadline);
+        boolean finished = System.nanoTime() < deadline;
+
+        for (Long userId : touchedUsers) {
+            notificationInboxCache.evict(userId);
+            notificationPushRegistry.publishInboxChange(userId);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("expiredReadDeleted", expired);
+        report.put("overCapDeleted", trimmed);
+        report.put("deliveryRecordsDeleted", deliveries);
+        report.put("usersAffected", touchedUsers.size());
+        report.put("remaining", notificationRepository.count());
+        report.put("finished", finished);
+        lastReport = report;
+        logger.info("Notification retention reclaimed {} rows ({} expired read, {} over cap) for {} users; finished={}",
+                expired + trimmed, expired, trimmed, touchedUsers.size(), finished);
+    }
+
+    public Map<String, Object> getLastReport() {
+        return lastReport;
+    }
+
+    private long deleteExpiredRead(LocalDateTime cutoff, long deadline, Set<Long> touchedUsers) {
+        long deleted = 0;
+        List<Object[]> rows;
+        do {
+            rows = notificationRepository.findReadBefore(cutoff, PageRequest.of(0, chunkSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Long> ids = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                ids.add((Long) row[0]);
+                touchedUsers.add((Long) row[1]);
+            }
+            notificationRepository.deleteAllByIdInBatch(ids);
+            notificationDigestMemberRepository.deleteByNotificationIds(ids);
+            deleted += ids.size();
+        } while (rows.size() == chunkSize && System.nanoTime() < deadline);
+        return deleted;
+    }
+
+    private long deleteOldDeliveries(LocalDateTime cutoff, long deadline) {
+        long deleted = 0;
+        List<Long> ids;
+        do {
+            ids = notificationDeliveryRepository.findIdsCreatedBefore(cutoff, PageRequest.of(0, chunkSize));
+            if (!ids.isEmpty()) {
+                notificationDeliveryRepository.deleteAllByIdInBatch(ids);
+                deleted += ids.size();
+            }
+        } while (ids.size() == chunkSize && System.nanoTime() < deadline);
+        return deleted;
+    }
+
+    private long trimToCap(long deadline, Set<Long> touchedUsers) {
+        long deleted = 0;
+        for (Long userId : notificationRepository.findUserIdsOverCap(maxPerUser)) {
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+            // The first notification past the cap, newest first; it and everything older go
+            List<Notification> boundary = notificationRepository.findNewestFirst(userId, PageRequest.of((int) maxPerUser, 1));
+            if (boundary.isEmpty()) {
+                continue;
+            }
+            Notification firstRemoved = boundary.get(0);
+            List<Long> ids;
+            do {
+                ids = notificationRepository.findIdsAtOrBefore(userId, firstRemoved.getTimestamp(), firstRemoved.getId(), PageRequest.of(0, chunkSize));
+                if (!ids.isEmpty()) {
+                    notificationRepository.deleteAllByIdInBatch(ids);
+                    notificationDigestMemberRepository.deleteByNotificationIds(ids);
+                    deleted += ids.size();
+                }
+            } while (ids.size() == chunkSize && System.nanoTime() < deadline);
+            touchedUsers.add(userId);
+        }
+        return deleted;
+    }
+}
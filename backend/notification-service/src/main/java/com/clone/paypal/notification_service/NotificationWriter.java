@@ -0,0 +1,62 @@
+package com.clone.paypal.notification_service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Persists notifications in one batched transaction, folding bursts into digest rows, and once committed updates
+ * inbox caches and live streams and hands new rows to the external channel dispatcher.
+ */
+@Service
+public class NotificationWriter {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationPushRegistry notificationPushRegistry;
+
+    @Autowired
+    private NotificationInboxCache notificationInboxCache;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private NotificationCoalescer notificationCoalescer;
+
+    @Transactional
+    public List<Notification> store(Collection<NotificationRequest> notificationRequests) {
+        if (notificationRequests.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Kolkata"));
+
+        NotificationCoalescer.Batch batch = notificationCoalescer.coalesce(notificationRequests, now);
+        List<Notification> notifications = batch.getInserts();
+        // Flushed here so a duplicate event id surfaces as DataIntegrityViolationException to the caller
+        notificationRepository.saveAllAndFlush(notifications);
+        notificationCoalescer.persisted(batch);
+        List<Notification> updated = batch.getUpdatedIds().isEmpty()
+                ? List.of() : notificationRepository.findAllById(batch.getUpdatedIds());
+
+        // Caches and live streams only see the batch once it is committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notificationInboxCache.onStored(notifications);
+                notificationInboxCache.onUpdated(updated);
+                notificationPushRegistry.publish(notifications, updated);
+                notificationDispatcher.dispatch(notifications);
+            }
+        });
+        return notifications;
+    }
+}
@@ -0,0 +1,42 @@
+package com.clone.paypal.notification_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for a real provider: logs each batch, optionally after a delay or with random failures.
+ */
+public class StubChannelAdapter implements ChannelAdapter {
+    private static final Logger logger = LoggerFactory.getLogger(StubChannelAdapter.class);
+
+    private final String channel;
+    private final long latencyMs;
+    private final double failureRate;
+
+    public StubChannelAdapter(String channel, long latencyMs, double failureRate) {
+        this.channel = channel;
+        this.latencyMs = latencyMs;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public String channel() {
+        return channel;
+    }
+
+    @Override
+    public void send(List<Notification> notifications) throws Exception {
+        if (latencyMs > 0) {
+            Thread.sleep(latencyMs);
+        }
+        if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IllegalStateException("Simulated " + channel + " provider failure");
+        }
+        for (Notification notification : notifications) {
+            logger.debug("[{}] to user {}: {}", channel, notification.getUserId(), notification.getMessage());
+        }
+        logger.info("[{}] sent {} notifications", channel, notifications.size());
+    }
+}
@@ -0,0 +1,72 @@
+package com.clone.paypal.notification_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import java.util.List;
+
+@Service
+public class UserDeletionListener {
+    private static final Logger logger = LoggerFactory.getLogger(UserDeletionListener.class);
+    private static final String SERVICE_NAME = "notifications";
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Autowired
+    private NotificationInboxCache notificationInboxCache;
+
+    @Autowired
+    private NotificationPushRegistry notificationPushRegistry;
+
+    @Autowired
+    private NotificationCoalescer notificationCoalescer;
+
+    @Autowired
+    private NotificationDeliveryRepository notificationDeliveryRepository;
+
+    @Autowired
+    private NotificationDigestMemberRepository notificationDigestMemberRepository;
+
+    @Autowired
+    private NotificationPreferenceService notificationPreferenceService;
+
+    @Value("${deletion.chunk-size:500}")
+    private int chunkSize;
+
+    @KafkaListener(topics = "user_events", groupId = "notification-service-user-events",
+            properties = {"spring.json.value.default.type=com.clone.paypal.notification_service.UserEvent"})
+    public void onUserEvent(UserEvent event) {
+        if (!UserEvent.DELETED.equals(event.getEventType())) {
+            return;
+        }
+
+        notificationCoalescer.discard(event.getUserId());
+
+        // Each chunk is its own short transaction so a heavy user never holds one huge delete
+        long deleted = 0;
+        List<Long> ids;
+        do {
+            ids = notificationRepository.findIdsByUserId(event.getUserId(), PageRequest.of(0, chunkSize));
+            if (!ids.isEmpty()) {
+                notificationRepository.deleteAllByIdInBatch(ids);
+                deleted += ids.size();
+            }
+        } while (ids.size() == chunkSize);
+        notificationDeliveryRepository.deleteByUserId(event.getUserId());
+        notificationDigestMemberRepository.deleteByUserId(event.getUserId());
+        notificationPreferenceService.deleteAll(event.getUserId());
+
+        notificationInboxCache.evict(event.getUserId());
+        notificationPushRegistry.publishInboxChange(event.getUserId());
+        logger.info("Deleted {} notifications of user {}", deleted, event.getUserId());
+        kafkaProducerService.sendDeletionProgress(new DeletionProgressEvent(event.getUserId(), SERVICE_NAME));
+    }
+}
@@ -0,0 +1,100 @@
+package com.clone.paypal.notification_service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The most recent notifications of one user, newest first, bounded to a fixed capacity,
+ * plus their unread count. {@code complete} means the buffer holds the user's entire history.
+ */
+public class UserInbox {
+    private final int capacity;
+    private final Deque<Notification> recent;
+    private long unreadCount;
+    private boolean complete;
+
+    public UserInbox(int capacity, List<Notification> newestFirst, long unreadCount) {
+        this.capacity = capacity;
+        this.recent = new ArrayDeque<>(newestFirst);
+        this.unreadCount = unreadCount;
+        this.complete = newestFirst.size() < capacity;
+    }
+
+    public synchronized void add(Notification notification) {
+        for (Notification existing : recent) {
+            if (existing.getId().equals(notification.getId())) {
+                return;
+            }
+        }
+        recent.addFirst(notification);
+        if (!notification.isRead()) {
+            unreadCount++;
+        }
+        if (recent.size() > capacity) {
+            recent.removeLast();
+            complete = false;
+        }
+    }
+
+    /** Replaces the buffered copy of a notification that changed in place, if it is still buffered. */
+    public synchronized void replace(Notification notification) {
+        Deque<Notification> replaced = new ArrayDeque<>(recent.size());
+        for (Notification existing : recent) {
+            replaced.addLast(existing.getId().equals(notification.getId()) ? notification : existing);
+        }
+        recent.clear();
+        recent.addAll(replaced);
+    }
+
+    /** Marks the given ids read; {@code affected} is how many of them were unread in the database. */
+    public synchronized void markRead(Collection<Long> notificationIds, long affected) {
+        for (Notification notification : recent) {
+            if (notificationIds.contains(notification.getId())) {
+                notification.setRead(true);
+            }
+        }
+        unreadCount = Math.max(0, unreadCount - affected);
+    }
+
+    public synchronized void markAllRead() {
+        recent.forEach(notification -> notification.setRead(true));
+        unreadCount = 0;
+    }
+
+    /** Removes a notification; returns false when the buffer can no longer serve a full first page. */
+    public synchronized boolean remove(Long notificationId, boolean wasUnread) {
+        Iterator<Notification> iterator = recent.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getId().equals(notificationId)) {
+                iterator.remove();
+            }
+        }
+        if (wasUnread) {
+            unreadCount = Math.max(0, unreadCount - 1);
+        }
+        return complete;
+    }
+
+    public synchronized long getUnreadCount() {
+        return unreadCount;
+    }
+
+    /** Returns up to limit notifications, or null when the buffer cannot answer that many. */
+    public synchronized List<Notification> recent(int limit) {
+        if (limit > recent.size() && !complete) {
+            return null;
+        }
+        List<Notification> page = new ArrayList<>(Math.min(limit, recent.size()));
+        for (Notification notification : recent) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(notification);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,86 @@
+package com.clone.paypal.notification_service;
+
+import org.junit.jupiter.api.Test;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventIdFilterTest {
+    private static final int EXPECTED_INSERTIONS = 10_000;
+
+    @Test
+    void neverMissesAnInsertedId() {
+        EventIdFilter filter = new EventIdFilter(EXPECTED_INSERTIONS, 0.01);
+        String[] ids = ids("inserted", EXPECTED_INSERTIONS);
+        for (String id : ids) {
+            filter.put(id);
+        }
+
+        for (String id : ids) {
+            assertTrue(filter.mightContain(id), id);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredRateAtCapacity() {
+        EventIdFilter filter = new EventIdFilter(EXPECTED_INSERTIONS, 0.01);
+        for (String id : ids("inserted", EXPECTED_INSERTIONS)) {
+            filter.put(id);
+        }
+
+        double rate = falsePositiveRate(filter, ids("absent", 100_000));
+
+        assertTrue(rate < 0.02, "false-positive rate was " + rate);
+    }
+
+    @Test
+    void rotationKeepsThePreviousGenerationAndForgetsTheOneBefore() {
+        EventIdFilter filter = new EventIdFilter(EXPECTED_INSERTIONS, 0.01);
+        String[] first = ids("first", EXPECTED_INSERTIONS);
+        String[] second = ids("second", EXPECTED_INSERTIONS);
+        for (String id : first) {
+            filter.put(id);
+        }
+        for (String id : second) {
+            filter.put(id); // The first put rotates the full first generation into previous
+        }
+
+        assertEquals(0, misses(filter, first), "the previous generation must still be consulted");
+        assertEquals(0, misses(filter, second));
+
+        filter.put("third-0"); // Rotates again; the first generation is dropped
+
+        assertEquals(0, misses(filter, second));
+        double stale = falsePositiveRate(filter, first);
+        assertTrue(stale < 0.02, "forgotten ids should only match at the false-positive rate, was " + stale);
+    }
+
+    private static int misses(EventIdFilter filter, String[] ids) {
+        int misses = 0;
+        for (String id : ids) {
+            if (!filter.mightContain(id)) {
+                misses++;
+            }
+        }
+        return misses;
+    }
+
+    private static double falsePositiveRate(EventIdFilter filter, String[] ids) {
+        int hits = 0;
+        for (String id : ids) {
+            if (filter.mightContain(id)) {
+                hits++;
+            }
+        }
+        return (double) hits / ids.length;
+    }
+
+    private static String[] ids(String prefix, int count) {
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = UUID.nameUUIDFromBytes((prefix + "-" + i).getBytes()).toString();
+        }
+        return ids;
+    }
+}
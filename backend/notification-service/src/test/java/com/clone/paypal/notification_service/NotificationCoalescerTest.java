@@ -0,0 +1,189 @@
+package com.clone.paypal.notification_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationCoalescerTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 9, 14, 0);
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationDigestMemberRepository notificationDigestMemberRepository;
+
+    @InjectMocks
+    private NotificationCoalescer coalescer;
+
+    private int nextEventId;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(coalescer, "enabled", true);
+        ReflectionTestUtils.setField(coalescer, "windowSeconds", 60L);
+        ReflectionTestUtils.setField(coalescer, "maxCount", 100);
+    }
+
+    @Test
+    void firstNotificationIsStoredPlainAndTheRestFoldIntoOneDigest() {
+        NotificationCoalescer.Batch batch = coalescer.coalesce(List.of(received("100"), received("20"), received("5")), NOW);
+
+        List<Notification> inserts = batch.getInserts();
+        assertEquals(2, inserts.size());
+        assertNull(inserts.get(0).getDigestCount());
+        assertNotNull(inserts.get(0).getEventId());
+        Notification digest = inserts.get(1);
+        assertEquals(2, digest.getDigestCount());
+        assertEquals(new BigDecimal("25"), digest.getAmount());
+        assertNull(digest.getEventId());
+        assertEquals("You received 2 payments totalling ₹25.00.", digest.getMessage());
+    }
+
+    @Test
+    void closedWindowStoresNextNotificationPlain() {
+        ReflectionTestUtils.setField(coalescer, "windowSeconds", 0L);
+
+        NotificationCoalescer.Batch batch = coalescer.coalesce(List.of(received("1"), received("2"), received("3")), NOW);
+
+        assertEquals(3, batch.getInserts().size());
+        batch.getInserts().forEach(notification -> assertNull(notification.getDigestCount()));
+    }
+
+    @Test
+    void digestIsClosedAtMaxCountAndNextOneStartsANewRow() {
+        ReflectionTestUtils.setField(coalescer, "maxCount", 3);
+        List<NotificationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            requests.add(received("1"));
+        }
+
+        List<Notification> inserts = coalescer.coalesce(requests, NOW).getInserts();
+
+        assertEquals(3, inserts.size());
+        assertNull(inserts.get(0).getDigestCount());
+        assertEquals(3, inserts.get(1).getDigestCount());
+        assertEquals(2, inserts.get(2).getDigestCount());
+    }
+
+    @Test
+    void laterBatchIncrementsStoredDigestInPlace() {
+        persist(coalescer.coalesce(List.of(received("10"), received("10")), NOW), 500L);
+        when(notificationRepository.incrementDigest(eq(501L), anyInt(), any(), anyString())).thenReturn(1);
+
+        NotificationCoalescer.Batch batch = coalescer.coalesce(List.of(received("5"), received("5")), NOW);
+
+        assertTrue(batch.getInserts().isEmpty());
+        assertEquals(List.of(501L), batch.getUpdatedIds());
+        verify(notificationRepository).incrementDigest(501L, 2, new BigDecimal("10"),
+                "You received 3 payments totalling ₹20.00.");
+    }
+
+    @Test
+    void readDigestIsNotIncrementedAndANewOneIsInserted() {
+        persist(coalescer.coalesce(List.of(received("10"), received("10")), NOW), 500L);
+        when(notificationRepository.incrementDigest(eq(501L), anyInt(), any(), anyString())).thenReturn(0);
+
+        NotificationCoalescer.Batch batch = coalescer.coalesce(List.of(received("7")), NOW);
+
+        assertTrue(batch.getUpdatedIds().isEmpty());
+        assertEquals(1, batch.getInserts().size());
+        assertEquals(1, batch.getInserts().get(0).getDigestCount());
+        assertEquals(new BigDecimal("7"), batch.getInserts().get(0).getAmount());
+    }
+
+    @Test
+    void overlappingBatchesNeverShareADigestRow() {
+        NotificationCoalescer.Batch first = coalescer.coalesce(List.of(received("10"), received("10")), NOW);
+
+        // A second batch arrives before the first one has flushed its digest
+        NotificationCoalescer.Batch second = coalescer.coalesce(List.of(received("5")), NOW);
+        assertEquals(1, second.getInserts().size());
+        Notification secondDigest = second.getInserts().get(0);
+        assertEquals(1, secondDigest.getDigestCount());
+        assertEquals(new BigDecimal("5"), secondDigest.getAmount());
+        assertEquals(1, first.getInserts().get(1).getDigestCount());
+
+        persist(first, 500L);
+        persist(second, 600L);
+        when(notificationRepository.incrementDigest(eq(600L), anyInt(), any(), anyString())).thenReturn(1);
+
+        NotificationCoalescer.Batch third = coalescer.coalesce(List.of(received("1")), NOW);
+
+        assertEquals(List.of(600L), third.getUpdatedIds());
+        verify(notificationRepository).incrementDigest(600L, 1, new BigDecimal("1"),
+                "You received 2 payments totalling ₹6.00.");
+    }
+
+    @Test
+    void eventIdsFoldedIntoDigestsAreStoredAsMembers() {
+        NotificationCoalescer.Batch batch = coalescer.coalesce(List.of(received("1"), received("2"), received("3")), NOW);
+        assignIds(batch, 500L);
+
+        coalescer.persisted(batch);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationDigestMember>> members = ArgumentCaptor.forClass(List.class);
+        verify(notificationDigestMemberRepository).saveAllAndFlush(members.capture());
+        assertEquals(List.of("event-2", "event-3"), members.getValue().stream().map(NotificationDigestMember::getEventId).toList());
+        members.getValue().forEach(member -> assertEquals(501L, member.getNotificationId()));
+    }
+
+    @Test
+    void uncategorisedNotificationsAreNeverCoalesced() {
+        NotificationRequest request = received("1");
+        request.setCategory(null);
+
+        NotificationCoalescer.Batch batch = coalescer.coalesce(List.of(request, request), NOW);
+
+        assertEquals(2, batch.getInserts().size());
+        verify(notificationRepository, never()).incrementDigest(anyLong(), anyInt(), any(), anyString());
+    }
+
+    private void persist(NotificationCoalescer.Batch batch, long firstId) {
+        assignIds(batch, firstId);
+        coalescer.persisted(batch);
+    }
+
+    // Stands in for the ids the sequence assigns on saveAllAndFlush
+    private static void assignIds(NotificationCoalescer.Batch batch, long firstId) {
+        long id = firstId;
+        for (Notification notification : batch.getInserts()) {
+            notification.setId(id++);
+        }
+    }
+
+    private NotificationRequest received(String amount) {
+        NotificationRequest request = new NotificationRequest();
+        request.setUserId(7L);
+        request.setType("Transaction");
+        request.setCategory("payment_received");
+        request.setAmount(new BigDecimal(amount));
+        request.setMessage("You received ₹" + amount);
+        request.setEventId("event-" + (++nextEventId));
+        return request;
+    }
+}
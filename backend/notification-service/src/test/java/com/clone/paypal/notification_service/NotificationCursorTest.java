@@ -0,0 +1,60 @@
+package com.clone.paypal.notification_service;
+
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotificationCursorTest {
+
+    @Test
+    void nextCursorRoundTripsToLastElementOfPage() {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 3, 9, 14, 5, 30, 123_000_000);
+        List<Notification> page = List.of(notification(42L, timestamp.plusMinutes(1)), notification(41L, timestamp));
+
+        NotificationCursor cursor = NotificationCursor.parse(NotificationCursor.next(page, 2));
+
+        assertEquals(timestamp, cursor.getTimestamp());
+        assertEquals(41L, cursor.getId());
+    }
+
+    @Test
+    void shortPageHasNoNextCursor() {
+        assertNull(NotificationCursor.next(List.of(notification(1L, LocalDateTime.now())), 2));
+    }
+
+    @Test
+    void missingCursorStartsAfterEverything() {
+        NotificationCursor cursor = NotificationCursor.parse(null);
+
+        assertTrue(cursor.getTimestamp().isAfter(LocalDateTime.now().plusYears(100)));
+        assertEquals(Long.MAX_VALUE, cursor.getId());
+        assertEquals(cursor.getId(), NotificationCursor.parse("").getId());
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> NotificationCursor.parse("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> NotificationCursor.parse(encode("2024-03-09T14:05:30")));
+        assertThrows(IllegalArgumentException.class, () -> NotificationCursor.parse(encode("2024-03-09T14:05:30|x")));
+        assertThrows(DateTimeParseException.class, () -> NotificationCursor.parse(encode("yesterday|41")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Notification notification(Long id, LocalDateTime timestamp) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setTimestamp(timestamp);
+        return notification;
+    }
+}
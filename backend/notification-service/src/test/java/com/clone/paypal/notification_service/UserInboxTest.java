@@ -0,0 +1,100 @@
+package com.clone.paypal.notification_service;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserInboxTest {
+
+    @Test
+    void evictsOldestOnceFullAndStopsServingBeyondBuffer() {
+        UserInbox inbox = new UserInbox(3, List.of(notification(2, false), notification(1, false)), 2);
+
+        inbox.add(notification(3, false));
+        inbox.add(notification(4, false));
+
+        assertEquals(List.of(4L, 3L, 2L), ids(inbox.recent(3)));
+        assertNull(inbox.recent(4), "an evicted buffer cannot answer past its capacity");
+        assertEquals(4, inbox.getUnreadCount());
+    }
+
+    @Test
+    void completeInboxServesLargerPagesThanItHolds() {
+        UserInbox inbox = new UserInbox(5, List.of(notification(2, false), notification(1, true)), 1);
+
+        assertEquals(List.of(2L, 1L), ids(inbox.recent(10)));
+    }
+
+    @Test
+    void fullFirstLoadIsNotComplete() {
+        UserInbox inbox = new UserInbox(2, List.of(notification(2, false), notification(1, false)), 5);
+
+        assertEquals(List.of(2L, 1L), ids(inbox.recent(2)));
+        assertNull(inbox.recent(3), "older notifications may exist in the database");
+    }
+
+    @Test
+    void removeReportsWhetherBufferStillServesFullPages() {
+        UserInbox complete = new UserInbox(3, List.of(notification(1, false)), 1);
+        assertTrue(complete.remove(1L, true));
+        assertEquals(0, complete.getUnreadCount());
+
+        UserInbox evicted = new UserInbox(1, List.of(notification(1, true)), 0);
+        evicted.add(notification(2, false));
+        assertFalse(evicted.remove(2L, true));
+    }
+
+    @Test
+    void addIgnoresAlreadyBufferedNotification() {
+        UserInbox inbox = new UserInbox(3, List.of(notification(1, false)), 1);
+
+        inbox.add(notification(1, false));
+
+        assertEquals(List.of(1L), ids(inbox.recent(3)));
+        assertEquals(1, inbox.getUnreadCount());
+    }
+
+    @Test
+    void replaceSwapsBufferedCopyInPlace() {
+        UserInbox inbox = new UserInbox(3, List.of(notification(2, false), notification(1, false)), 2);
+        Notification grown = notification(1, false);
+        grown.setMessage("You received 3 payments");
+
+        inbox.replace(grown);
+
+        assertEquals("You received 3 payments", inbox.recent(2).get(1).getMessage());
+        assertEquals(2, inbox.getUnreadCount());
+    }
+
+    @Test
+    void markReadLowersUnreadCountByAffectedRows() {
+        UserInbox inbox = new UserInbox(3, List.of(notification(2, false), notification(1, false)), 2);
+
+        inbox.markRead(List.of(1L), 1);
+
+        assertTrue(inbox.recent(2).get(1).isRead());
+        assertEquals(1, inbox.getUnreadCount());
+    }
+
+    private static Notification notification(long id, boolean read) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setUserId(7L);
+        notification.setMessage("Notification " + id);
+        notification.setRead(read);
+        return notification;
+    }
+
+    private static List<Long> ids(List<Notification> notifications) {
+        List<Long> ids = new ArrayList<>();
+        for (Notification notification : notifications) {
+            ids.add(notification.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,7 @@
+package com.clone.paypal.transaction_service;
+
+public class InvalidPaymentTokenException extends RuntimeException {
+    public InvalidPaymentTokenException(String message) {
+        super(message);
+    }
+}
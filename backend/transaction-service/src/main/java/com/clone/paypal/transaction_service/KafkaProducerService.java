@@ -1,16 +1,28 @@
 package com.clone.paypal.transaction_service;
 
+import com.clone.paypal.events.EventEnvelope;
+import com.clone.paypal.events.EventPublisher;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 @Service
 public class KafkaProducerService {
     private static final String TOPIC = "notification_topic";
+    private static final String TRANSACTION_EVENTS_TOPIC = "transaction_events";
+    private static final String DELETION_PROGRESS_TOPIC = "user_deletion_progress";
+
     @Autowired
-    private KafkaTemplate<String, NotificationRequest> kafkaTemplate;
+    private EventPublisher eventPublisher;
 
     public void sendNotificationEvent(NotificationRequest request) {
-        kafkaTemplate.send(TOPIC, request);
+        eventPublisher.publish(TOPIC, EventEnvelope.withId(request.getEventId(), "notification", request.getUserId(), request));
+    }
+
+    public void sendTransactionEvent(TransactionEvent event) {
+        eventPublisher.publish(TRANSACTION_EVENTS_TOPIC, EventEnvelope.of("transaction", event.getSenderId(), event));
+    }
+
+    public void sendDeletionProgress(DeletionProgressEvent event) {
+        eventPublisher.publish(DELETION_PROGRESS_TOPIC, EventEnvelope.of("deletion.progress", event.getUserId(), event));
     }
 }
@@ -1,9 +1,15 @@
 package com.clone.paypal.transaction_service;
 
+import java.math.BigDecimal;
+import java.util.UUID;
+
 public class NotificationRequest {
+    private String eventId = UUID.randomUUID().toString(); // Lets the consumer drop redelivered copies
     private Long userId;
     private String message;
     private String type;
+    private String category; // Set on notifications the consumer may merge into a digest
+    private BigDecimal amount;
 
     public NotificationRequest() {}
     public NotificationRequest(Long userId, String message, String type) {
@@ -12,6 +18,12 @@ public class NotificationRequest {
         this.type = type;
     }
 
+    public NotificationRequest(Long userId, String message, String type, String category, BigDecimal amount) {
+        this(userId, message, type);
+        this.category = category;
+        this.amount = amount;
+    }
+
     public Long getUserId() {
         return userId;
     }
@@ -35,4 +47,28 @@ public class NotificationRequest {
     public void setType(String type) {
         this.type = type;
     }
-}
\ No newline at end of file
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+}
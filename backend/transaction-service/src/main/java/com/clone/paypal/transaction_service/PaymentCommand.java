@@ -1,13 +1,25 @@
-package com.clone.paypal.user_service;
+package com.clone.paypal.transaction_service;
 
 import java.math.BigDecimal;
 
-public class TransactionRequest {
+public class PaymentCommand {
+    private String reference;
     private Long senderId;
-    private String recipientEmail; // Using email to find the recipient user
+    private String recipientEmail;
     private BigDecimal amount;
     private String description;
-    private String transactionPassword;
+    private String paymentToken;
+
+    public PaymentCommand() {
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
 
     public Long getSenderId() {
         return senderId;
@@ -41,11 +53,11 @@ public class TransactionRequest {
         this.description = description;
     }
 
-    public String getTransactionPassword() {
-        return transactionPassword;
+    public String getPaymentToken() {
+        return paymentToken;
     }
 
-    public void setTransactionPassword(String transactionPassword) {
-        this.transactionPassword = transactionPassword;
+    public void setPaymentToken(String paymentToken) {
+        this.paymentToken = paymentToken;
     }
-}
\ No newline at end of file
+}
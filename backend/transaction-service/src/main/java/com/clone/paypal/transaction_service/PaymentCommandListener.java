@@ -0,0 +1,56 @@
+package com.clone.paypal.transaction_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import java.util.Optional;
+
+/**
+ * Executes payments requested by other services. Commands carry a reference that is stored
+ * uniquely on the transaction, so a redelivered or retried command reports the recorded
+ * outcome again instead of paying twice.
+ */
+@Service
+public class PaymentCommandListener {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentCommandListener.class);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @KafkaListener(topics = "payment_commands", groupId = "transaction-service-payments",
+            properties = {"spring.json.value.default.type=com.clone.paypal.transaction_service.PaymentCommand"})
+    public void onPaymentCommand(PaymentCommand command) {
+        Optional<Transaction> existing = transactionRepository.findByReference(command.getReference());
+        if (existing.isPresent()) {
+            republish(existing.get());
+            return;
+        }
+
+        try {
+            transactionService.performTransaction(command.getSenderId(), command.getRecipientEmail(), command.getAmount(),
+                    command.getDescription(), null, command.getPaymentToken(), command.getReference());
+        } catch (DataIntegrityViolationException e) {
+            // Lost the claim to a concurrent delivery of the same command
+            transactionRepository.findByReference(command.getReference()).ifPresent(this::republish);
+        }
+    }
+
+    private void republish(Transaction transaction) {
+        String status = transaction.getStatus();
+        if (Transaction.PENDING.equals(status) || Transaction.DEBITED.equals(status) || Transaction.REVERSING.equals(status)) {
+            // Still in flight, or an earlier attempt died mid-payment; PaymentReconciler settles it after the timeout
+            logger.info("Payment {} is still {}; its outcome is reported once it settles", transaction.getReference(), status);
+            return;
+        }
+        kafkaProducerService.sendTransactionEvent(new TransactionEvent(transaction));
+    }
+}
@@ -0,0 +1,82 @@
+package com.clone.paypal.transaction_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Settles payment-command transactions that never reached a final state, e.g. because the instance died
+ * between wallet calls. A stale PENDING payment never had its debit confirmed and is failed outright;
+ * a stale DEBITED one is reversed by crediting the sender back. Either way an outcome event is published,
+ * so the requesting service stops waiting. The timeout must stay well above the wallet HTTP timeouts.
+ * A refund is leased to one instance for the timeout and carries the payment's reversal reference,
+ * so concurrent sweeps or a retry after a lost REVERSED transition never credit the sender twice.
+ */
+@Component
+public class PaymentReconciler {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentReconciler.class);
+    private static final String TIMED_OUT = "FAILED: Payment timed out";
+    private static final String REVERSED = "FAILED: Payment reversed after timeout";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Value("${payments.pending-timeout-seconds:300}")
+    private long pendingTimeoutSeconds;
+
+    private final String walletServiceUrl = "http://WALLET-SERVICE/api/wallets";
+
+    @Scheduled(fixedDelayString = "${payments.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Kolkata"));
+        LocalDateTime cutoff = now.minusSeconds(pendingTimeoutSeconds);
+
+        for (Transaction transaction : transactionRepository.findTop100ByStatusAndTimestampBefore(Transaction.PENDING, cutoff)) {
+            if (transactionRepository.transition(transaction.getId(), Transaction.PENDING, TIMED_OUT) == 1) {
+                logger.warn("Payment {} timed out before its debit was confirmed", transaction.getReference());
+                transaction.setStatus(TIMED_OUT);
+                kafkaProducerService.sendTransactionEvent(new TransactionEvent(transaction));
+            }
+        }
+        for (Transaction transaction : transactionRepository.findTop100ByStatusAndTimestampBefore(Transaction.DEBITED, cutoff)) {
+            if (transactionRepository.beginReversal(transaction.getId(), now) == 1) {
+                reverse(transaction);
+            }
+        }
+        // Reversals whose refund call failed, or whose instance died, on an earlier run
+        for (Transaction transaction : transactionRepository.findTop100ByStatusAndTimestampBefore(Transaction.REVERSING, cutoff)) {
+            if (transactionRepository.claimReversal(transaction.getId(), cutoff, now) == 1) {
+                reverse(transaction);
+            }
+        }
+    }
+
+    private void reverse(Transaction transaction) {
+        try {
+            restTemplate.postForObject(walletServiceUrl + "/credit",
+                    new WalletTransactionRequest(transaction.getSenderId(), transaction.getAmount(), transaction.reversalReference()), Void.class);
+        } catch (Exception e) {
+            logger.error("Refund for stalled payment {} failed; retrying on the next run", transaction.getReference(), e);
+            return;
+        }
+        if (transactionRepository.transition(transaction.getId(), Transaction.REVERSING, REVERSED) == 1) {
+            logger.warn("Payment {} reversed after timeout", transaction.getReference());
+            transaction.setStatus(REVERSED);
+            kafkaProducerService.sendTransactionEvent(new TransactionEvent(transaction));
+            String message = String.format("Your payment of %.2f could not be completed and was refunded.", transaction.getAmount());
+            kafkaProducerService.sendNotificationEvent(new NotificationRequest(transaction.getSenderId(), message, "Transaction"));
+        }
+    }
+}
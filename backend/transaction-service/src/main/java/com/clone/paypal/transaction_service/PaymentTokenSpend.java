@@ -0,0 +1,71 @@
+package com.clone.paypal.transaction_service;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Amount already spent against one payment token, keyed by its jti and kept until the token expires.
+ */
+@Entity
+@Table(name = "payment_token_spend", indexes = @Index(name = "idx_token_spend_expires", columnList = "expiresAt"))
+public class PaymentTokenSpend implements Persistable<String> {
+    @Id @Column(length = 64) private String jti;
+    private BigDecimal spent;
+    private BigDecimal maxAmount;
+    private Instant expiresAt;
+
+    public PaymentTokenSpend() {
+    }
+
+    public PaymentTokenSpend(String jti, BigDecimal maxAmount, Instant expiresAt) {
+        this.jti = jti;
+        this.spent = BigDecimal.ZERO;
+        this.maxAmount = maxAmount;
+        this.expiresAt = expiresAt;
+    }
+
+    // Always inserted, never merged, so a concurrent first use fails on the primary key instead of resetting spent
+    @Override
+    public String getId() {
+        return jti;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public BigDecimal getSpent() {
+        return spent;
+    }
+
+    public void setSpent(BigDecimal spent) {
+        this.spent = spent;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,27 @@
+package com.clone.paypal.transaction_service;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public interface PaymentTokenSpendRepository extends JpaRepository<PaymentTokenSpend, String> {
+    // Conditional increment, so concurrent payments with one token can never exceed its limit together
+    @Transactional
+    @Modifying
+    @Query("update PaymentTokenSpend s set s.spent = s.spent + :amount where s.jti = :jti and s.spent + :amount <= s.maxAmount")
+    int spend(@Param("jti") String jti, @Param("amount") BigDecimal amount);
+
+    @Transactional
+    @Modifying
+    @Query("update PaymentTokenSpend s set s.spent = s.spent - :amount where s.jti = :jti and s.spent >= :amount")
+    int release(@Param("jti") String jti, @Param("amount") BigDecimal amount);
+
+    @Transactional
+    @Modifying
+    @Query("delete from PaymentTokenSpend s where s.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") Instant cutoff);
+}
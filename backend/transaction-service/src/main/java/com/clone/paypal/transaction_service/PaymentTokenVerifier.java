@@ -0,0 +1,113 @@
+package com.clone.paypal.transaction_service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Validates payment tokens issued by USER-SERVICE without a network call.
+ * A token is accepted only if its signature matches, it has not expired, it carries
+ * the "payment" scope, it belongs to the sender and the amount is within its limit.
+ * The limit is cumulative: every accepted payment is reserved against the token's jti until it expires,
+ * so a replayed or reused token can never spend more than its max. A payment that fails before any money
+ * moves releases its reservation again.
+ */
+@Component
+public class PaymentTokenVerifier {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String SCOPE = "payment";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PaymentTokenSpendRepository paymentTokenSpendRepository;
+
+    @Value("${payment-token.secret}")
+    private String secret;
+
+    /** Returns the token's jti once amount has been reserved against it. */
+    public String verify(String token, Long senderId, BigDecimal amount) {
+        int separator = token.indexOf('.');
+        if (separator <= 0 || separator == token.length() - 1) {
+            throw new InvalidPaymentTokenException("Malformed payment token");
+        }
+        String payload = token.substring(0, separator);
+        String signature = token.substring(separator + 1);
+
+        JsonNode claims;
+        try {
+            byte[] expected = sign(payload);
+            byte[] actual = Base64.getUrlDecoder().decode(signature);
+            if (!MessageDigest.isEqual(expected, actual)) {
+                throw new InvalidPaymentTokenException("Invalid payment token signature");
+            }
+            claims = objectMapper.readTree(Base64.getUrlDecoder().decode(payload));
+        } catch (InvalidPaymentTokenException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new InvalidPaymentTokenException("Malformed payment token");
+        }
+
+        if (claims.path("exp").asLong() < Instant.now().getEpochSecond()) {
+            throw new InvalidPaymentTokenException("Payment token expired");
+        }
+        if (!SCOPE.equals(claims.path("scope").asText())) {
+            throw new InvalidPaymentTokenException("Payment token has wrong scope");
+        }
+        if (senderId == null || claims.path("sub").asLong() != senderId) {
+            throw new InvalidPaymentTokenException("Payment token was issued to a different user");
+        }
+        BigDecimal max = new BigDecimal(claims.path("max").asText("0"));
+        if (amount == null || amount.compareTo(max) > 0) {
+            throw new InvalidPaymentTokenException("Amount exceeds payment token limit");
+        }
+        String jti = claims.path("jti").asText();
+        if (jti.isEmpty()) {
+            throw new InvalidPaymentTokenException("Malformed payment token");
+        }
+        spend(jti, max, Instant.ofEpochSecond(claims.path("exp").asLong()), amount);
+        return jti;
+    }
+
+    /** Gives back an amount reserved by verify for a payment that never debited the sender. */
+    public void release(String jti, BigDecimal amount) {
+        paymentTokenSpendRepository.release(jti, amount);
+    }
+
+    private void spend(String jti, BigDecimal max, Instant expiresAt, BigDecimal amount) {
+        if (!paymentTokenSpendRepository.existsById(jti)) {
+            try {
+                paymentTokenSpendRepository.saveAndFlush(new PaymentTokenSpend(jti, max, expiresAt));
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent payment recorded the token first; spend against its row
+            }
+        }
+        if (paymentTokenSpendRepository.spend(jti, amount) == 0) {
+            throw new InvalidPaymentTokenException("Payment token limit already used");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment-token.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        paymentTokenSpendRepository.deleteExpiredBefore(Instant.now());
+    }
+
+    private byte[] sign(String payload) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(ALGORITHM);
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+        return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+}
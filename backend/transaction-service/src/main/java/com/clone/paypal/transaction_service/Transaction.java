@@ -7,12 +7,19 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "transactions")
 public class Transaction {
+    // In-flight states of a payment-command transaction; final states are COMPLETED or "FAILED: <reason>"
+    public static final String PENDING = "PENDING";
+    public static final String DEBITED = "DEBITED";
+    public static final String REVERSING = "REVERSING";
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY) private Long id;
     private Long senderId;
     private Long recipientId;
     private BigDecimal amount;
     private String status;
     private String description; // Add this new field
+    @Column(unique = true) private String reference; // Idempotency key for transactions started by a payment command
+    private LocalDateTime reversalClaimedAt; // Lease of the reconciler instance refunding a stalled payment
 
     public Long getId() {
         return id;
@@ -62,6 +69,27 @@ public class Transaction {
         this.senderId = senderId;
     }
 
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public LocalDateTime getReversalClaimedAt() {
+        return reversalClaimedAt;
+    }
+
+    public void setReversalClaimedAt(LocalDateTime reversalClaimedAt) {
+        this.reversalClaimedAt = reversalClaimedAt;
+    }
+
+    /** Wallet credit reference of the refund for this payment, so a retried refund is applied once. */
+    public String reversalReference() {
+        return "reversal:" + reference;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -2,6 +2,7 @@
 
 package com.clone.paypal.transaction_service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -15,13 +16,20 @@ public class TransactionController {
     @Autowired private TransactionRepository transactionRepository;
 
     @PostMapping
-    public ResponseEntity<?> createTransaction(@RequestBody TransactionRequest request) {
+    public ResponseEntity<?> createTransaction(@RequestBody TransactionRequest request,
+                                               @RequestHeader(value = "X-User-Id", required = false) Long authenticatedUserId) {
+        // Requests routed through the gateway carry the caller's verified id; never pay from someone else's wallet
+        if (authenticatedUserId != null && !authenticatedUserId.equals(request.getSenderId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Sender does not match authenticated user"));
+        }
+
         Transaction newTransaction = transactionService.performTransaction(
                 request.getSenderId(),
                 request.getRecipientEmail(),
                 request.getAmount(),
                 request.getDescription(),
-                request.getTransactionPassword()
+                request.getTransactionPassword(),
+                request.getPaymentToken()
         );
 
         if (newTransaction.getStatus().startsWith("FAILED")) {
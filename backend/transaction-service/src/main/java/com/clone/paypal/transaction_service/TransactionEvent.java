@@ -0,0 +1,72 @@
+package com.clone.paypal.transaction_service;
+
+import java.math.BigDecimal;
+
+public class TransactionEvent {
+    private Long transactionId;
+    private Long senderId;
+    private Long recipientId;
+    private BigDecimal amount;
+    private String status;
+    private String reference;
+
+    public TransactionEvent() {
+    }
+
+    public TransactionEvent(Transaction transaction) {
+        this.transactionId = transaction.getId();
+        this.senderId = transaction.getSenderId();
+        this.recipientId = transaction.getRecipientId();
+        this.amount = transaction.getAmount();
+        this.status = transaction.getStatus();
+        this.reference = transaction.getReference();
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public Long getSenderId() {
+        return senderId;
+    }
+
+    public void setSenderId(Long senderId) {
+        this.senderId = senderId;
+    }
+
+    public Long getRecipientId() {
+        return recipientId;
+    }
+
+    public void setRecipientId(Long recipientId) {
+        this.recipientId = recipientId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+}
@@ -1,9 +1,46 @@
 package com.clone.paypal.transaction_service;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     List<Transaction> findBySenderIdOrRecipientId(Long senderId, Long recipientId);
     void deleteBySenderIdOrRecipientId(Long senderId, Long recipientId);
-}
\ No newline at end of file
+    Optional<Transaction> findByReference(String reference);
+
+    List<Transaction> findTop100ByStatusAndTimestampBefore(String status, LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("update Transaction t set t.status = :to where t.id = :id and t.status = :from")
+    int transition(@Param("id") Long id, @Param("from") String from, @Param("to") String to);
+
+    // DEBITED -> REVERSING, leasing the refund to the caller
+    @Transactional
+    @Modifying
+    @Query("update Transaction t set t.status = 'REVERSING', t.reversalClaimedAt = :now where t.id = :id and t.status = 'DEBITED'")
+    int beginReversal(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Takes over a refund whose lease lapsed before it reached REVERSED
+    @Transactional
+    @Modifying
+    @Query("update Transaction t set t.reversalClaimedAt = :now where t.id = :id and t.status = 'REVERSING' " +
+            "and (t.reversalClaimedAt is null or t.reversalClaimedAt < :cutoff)")
+    int claimReversal(@Param("id") Long id, @Param("cutoff") LocalDateTime cutoff, @Param("now") LocalDateTime now);
+
+    // Final outcome of an in-flight payment; loses to the reconciler once it has taken the transaction over
+    @Transactional
+    @Modifying
+    @Query("update Transaction t set t.status = :to, t.recipientId = :recipientId where t.id = :id and t.status in ('PENDING', 'DEBITED')")
+    int settle(@Param("id") Long id, @Param("recipientId") Long recipientId, @Param("to") String to);
+
+    @Query("select t.id from Transaction t where t.senderId = :userId or t.recipientId = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+}
@@ -8,6 +8,7 @@ public class TransactionRequest {
     private BigDecimal amount;
     private String description;
     private String transactionPassword;
+    private String paymentToken;
 
     public Long getSenderId() {
         return senderId;
@@ -48,4 +49,12 @@ public class TransactionRequest {
     public void setTransactionPassword(String transactionPassword) {
         this.transactionPassword = transactionPassword;
     }
-}
\ No newline at end of file
+
+    public String getPaymentToken() {
+        return paymentToken;
+    }
+
+    public void setPaymentToken(String paymentToken) {
+        this.paymentToken = paymentToken;
+    }
+}
@@ -1,5 +1,7 @@
 package com.clone.paypal.transaction_service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
@@ -12,14 +14,22 @@ import java.util.Map;
 
 @Service
 public class TransactionService {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
+
     @Autowired private TransactionRepository transactionRepository;
     @Autowired private RestTemplate restTemplate;
     @Autowired private KafkaProducerService kafkaProducerService;
+    @Autowired private PaymentTokenVerifier paymentTokenVerifier;
+    @Autowired private UserLookupService userLookupService;
 
     private final String walletServiceUrl = "http://WALLET-SERVICE/api/wallets";
     private final String userServiceUrl = "http://USER-SERVICE/api/users";
 
-    public Transaction performTransaction(Long senderId, String recipientEmail, BigDecimal amount, String description, String transactionPassword) {
+    public Transaction performTransaction(Long senderId, String recipientEmail, BigDecimal amount, String description, String transactionPassword, String paymentToken) {
+        return performTransaction(senderId, recipientEmail, amount, description, transactionPassword, paymentToken, null);
+    }
+
+    public Transaction performTransaction(Long senderId, String recipientEmail, BigDecimal amount, String description, String transactionPassword, String paymentToken, String reference) {
         Transaction transaction = new Transaction();
         transaction.setSenderId(senderId);
         transaction.setRecipientId(null);
@@ -27,47 +37,64 @@ public class TransactionService {
         transaction.setDescription(description);
         transaction.setTimestamp(LocalDateTime.now(ZoneId.of("Asia/Kolkata")));
 
-        try {
-            restTemplate.postForEntity(
-                    userServiceUrl + "/verify-transaction-password",
-                    new VerifyTransactionPasswordRequest(senderId, transactionPassword),
-                    Map.class);
-        } catch (HttpClientErrorException e) {
-            if (e.getStatusCode() == HttpStatus.PRECONDITION_FAILED) {
-                transaction.setStatus("FAILED: Transaction password not set");
-            } else if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
-                transaction.setStatus("FAILED: Invalid transaction password");
-            } else {
+        if (reference != null) {
+            // Claim the reference before any money moves; the unique constraint rejects a second claim
+            transaction.setReference(reference);
+            transaction.setStatus(Transaction.PENDING);
+            transaction = transactionRepository.saveAndFlush(transaction);
+        }
+
+        String tokenJti = null; // Set once amount is reserved against a payment token
+        if (paymentToken != null && !paymentToken.isEmpty()) {
+            try {
+                tokenJti = paymentTokenVerifier.verify(paymentToken, senderId, amount);
+            } catch (InvalidPaymentTokenException e) {
+                transaction.setStatus("FAILED: " + e.getMessage());
+                return finish(transaction);
+            }
+        } else {
+            try {
+                restTemplate.postForEntity(
+                        userServiceUrl + "/verify-transaction-password",
+                        new VerifyTransactionPasswordRequest(senderId, transactionPassword),
+                        Map.class);
+            } catch (HttpClientErrorException e) {
+                if (e.getStatusCode() == HttpStatus.PRECONDITION_FAILED) {
+                    transaction.setStatus("FAILED: Transaction password not set");
+                } else if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
+                    transaction.setStatus("FAILED: Invalid transaction password");
+                } else {
+                    transaction.setStatus("FAILED: Error verifying transaction password: " + e.getMessage());
+                }
+                return finish(transaction);
+            } catch (Exception e) {
                 transaction.setStatus("FAILED: Error verifying transaction password: " + e.getMessage());
+                return finish(transaction);
             }
-            return transactionRepository.save(transaction);
-        } catch (Exception e) {
-            transaction.setStatus("FAILED: Error verifying transaction password: " + e.getMessage());
-            return transactionRepository.save(transaction);
         }
 
         User recipientUser = null;
         User senderUser = null;
         try {
-            senderUser = restTemplate.getForObject(userServiceUrl + "/" + senderId, User.class);
+            senderUser = userLookupService.getById(senderId);
         } catch (Exception e) {
             transaction.setStatus("FAILED: Error fetching sender user details");
-            return transactionRepository.save(transaction);
+            return failUnpaid(transaction, tokenJti);
         }
 
         try {
-            recipientUser = restTemplate.getForObject(userServiceUrl + "/email/" + recipientEmail, User.class);
+            recipientUser = userLookupService.getByEmail(recipientEmail);
         } catch (HttpClientErrorException.NotFound e) {
             transaction.setStatus("FAILED: Recipient user not found");
-            return transactionRepository.save(transaction);
+            return failUnpaid(transaction, tokenJti);
         } catch (Exception e) {
             transaction.setStatus("FAILED: Error fetching recipient user: " + e.getMessage());
-            return transactionRepository.save(transaction);
+            return failUnpaid(transaction, tokenJti);
         }
 
         if (recipientUser == null || recipientUser.getId() == null) {
             transaction.setStatus("FAILED: Recipient user not found or invalid");
-            return transactionRepository.save(transaction);
+            return failUnpaid(transaction, tokenJti);
         }
 
         Long recipientId = recipientUser.getId();
@@ -79,10 +106,28 @@ public class TransactionService {
             transaction.setStatus("FAILED: Insufficient balance");
             String errorMsg = String.format("Transaction of %.2f to %s failed due to insufficient balance.", amount.doubleValue(), recipientEmail);
             kafkaProducerService.sendNotificationEvent(new NotificationRequest(senderId, errorMsg, "Transaction"));
-            return transactionRepository.save(transaction);
+            return failUnpaid(transaction, tokenJti);
         } catch (Exception e) {
+            // May have timed out after the wallet debited, so the reservation is kept
             transaction.setStatus("FAILED: " + e.getMessage());
-            return transactionRepository.save(transaction);
+            return finish(transaction);
+        }
+
+        if (transaction.getReference() != null) {
+            if (transactionRepository.transition(transaction.getId(), Transaction.PENDING, Transaction.DEBITED) == 0) {
+                // The reconciler already failed this payment as stale; give the money back
+                try {
+                    restTemplate.postForObject(walletServiceUrl + "/credit",
+                            new WalletTransactionRequest(senderId, amount, transaction.reversalReference()), Void.class);
+                    if (tokenJti != null) {
+                        paymentTokenVerifier.release(tokenJti, amount);
+                    }
+                } catch (Exception e) {
+                    logger.error("Refund of {} to user {} for timed-out payment {} failed", amount, senderId, transaction.getReference(), e);
+                }
+                return transactionRepository.findById(transaction.getId()).orElse(transaction);
+            }
+            transaction.setStatus(Transaction.DEBITED);
         }
 
         try {
@@ -90,13 +135,36 @@ public class TransactionService {
             transaction.setStatus("COMPLETED");
 
             String sentMsg = String.format("You sent %.2f to %s.", amount.doubleValue(), recipientUser.getName());
-            kafkaProducerService.sendNotificationEvent(new NotificationRequest(senderId, sentMsg, "Transaction"));
+            kafkaProducerService.sendNotificationEvent(new NotificationRequest(senderId, sentMsg, "Transaction", "payment_sent", amount));
 
             String receivedMsg = String.format("You received %.2f from %s.", amount.doubleValue(), senderUser.getName());
-            kafkaProducerService.sendNotificationEvent(new NotificationRequest(recipientId, receivedMsg, "Transaction"));
+            kafkaProducerService.sendNotificationEvent(new NotificationRequest(recipientId, receivedMsg, "Transaction", "payment_received", amount));
         } catch (Exception e) {
             transaction.setStatus("FAILED: " + e.getMessage());
         }
-        return transactionRepository.save(transaction);
+        return finish(transaction);
+    }
+
+    // No money moved, so the payment token's reservation is given back
+    private Transaction failUnpaid(Transaction transaction, String tokenJti) {
+        if (tokenJti != null) {
+            paymentTokenVerifier.release(tokenJti, transaction.getAmount());
+        }
+        return finish(transaction);
+    }
+
+    private Transaction finish(Transaction transaction) {
+        if (transaction.getReference() != null && transaction.getId() != null) {
+            if (transactionRepository.settle(transaction.getId(), transaction.getRecipientId(), transaction.getStatus()) == 0) {
+                // PaymentReconciler took over after the timeout and reports the outcome itself
+                logger.error("Payment {} finished as '{}' after the reconciler took it over", transaction.getReference(), transaction.getStatus());
+                return transactionRepository.findById(transaction.getId()).orElse(transaction);
+            }
+            kafkaProducerService.sendTransactionEvent(new TransactionEvent(transaction));
+            return transaction;
+        }
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        kafkaProducerService.sendTransactionEvent(new TransactionEvent(savedTransaction));
+        return savedTransaction;
     }
-}
\ No newline at end of file
+}
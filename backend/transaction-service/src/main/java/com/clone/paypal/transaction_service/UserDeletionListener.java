@@ -0,0 +1,46 @@
+package com.clone.paypal.transaction_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import java.util.List;
+
+@Service
+public class UserDeletionListener {
+    private static final Logger logger = LoggerFactory.getLogger(UserDeletionListener.class);
+    private static final String SERVICE_NAME = "transactions";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Value("${deletion.chunk-size:500}")
+    private int chunkSize;
+
+    @KafkaListener(topics = "user_events", groupId = "transaction-service-user-events")
+    public void onUserEvent(UserEvent event) {
+        if (!UserEvent.DELETED.equals(event.getEventType())) {
+            return;
+        }
+
+        // Each chunk is its own short transaction so a heavy user never holds one huge delete
+        long deleted = 0;
+        List<Long> ids;
+        do {
+            ids = transactionRepository.findIdsByUserId(event.getUserId(), PageRequest.of(0, chunkSize));
+            if (!ids.isEmpty()) {
+                transactionRepository.deleteAllByIdInBatch(ids);
+                deleted += ids.size();
+            }
+        } while (ids.size() == chunkSize);
+
+        logger.info("Deleted {} transactions of user {}", deleted, event.getUserId());
+        kafkaProducerService.sendDeletionProgress(new DeletionProgressEvent(event.getUserId(), SERVICE_NAME));
+    }
+}
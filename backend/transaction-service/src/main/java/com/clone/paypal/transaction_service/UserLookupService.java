@@ -0,0 +1,135 @@
+package com.clone.paypal.transaction_service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Near cache of USER-SERVICE identity lookups used on the payment path.
+ * Concurrent misses for the same key share a single load. Entries expire after a TTL
+ * and are evicted early when user-service publishes an update or delete on user_events; the emails a user was
+ * looked up by are remembered per id, so that only touches that user's entries.
+ * Emails are passed to USER-SERVICE exactly as given, so matching rules stay those of its lookup.
+ */
+@Service
+public class UserLookupService {
+    private static final Logger logger = LoggerFactory.getLogger(UserLookupService.class);
+    private static final String USER_SERVICE_URL = "http://USER-SERVICE/api/users";
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${user-cache.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    private LoadingCache<Long, User> usersById;
+    private LoadingCache<String, EmailLookup> userIdsByEmail;
+    private Cache<Long, Set<String>> emailsByUserId;
+    private Cache<Long, Long> invalidatedAt;
+
+    @PostConstruct
+    public void init() {
+        usersById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build(id -> restTemplate.getForObject(USER_SERVICE_URL + "/" + id, User.class));
+        userIdsByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build(this::loadUserIdByEmail);
+        emailsByUserId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+
+        // Remembers recent invalidations so a lookup that raced with one does not cache what it fetched
+        invalidatedAt = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, userIdsByEmail, "users.idByEmail");
+    }
+
+    public User getById(Long id) {
+        return usersById.get(id);
+    }
+
+    public User getByEmail(String email) {
+        EmailLookup lookup = userIdsByEmail.get(email);
+        if (lookup != null && invalidatedSince(lookup.userId, lookup.startedAt)) {
+            // The user changed while this was being fetched, so the address may no longer be theirs
+            userIdsByEmail.asMap().remove(email, lookup);
+            lookup = userIdsByEmail.get(email);
+        }
+        return lookup == null ? null : usersById.get(lookup.userId);
+    }
+
+    private EmailLookup loadUserIdByEmail(String email) {
+        long startedAt = System.nanoTime();
+        User user = restTemplate.getForObject(USER_SERVICE_URL + "/email/" + email, User.class);
+        if (user == null || user.getId() == null) {
+            return null;
+        }
+        emailsByUserId.asMap().computeIfAbsent(user.getId(), id -> ConcurrentHashMap.newKeySet()).add(email);
+        if (!invalidatedSince(user.getId(), startedAt)) {
+            usersById.put(user.getId(), user);
+        }
+        return new EmailLookup(user.getId(), startedAt);
+    }
+
+    private boolean invalidatedSince(Long userId, long startedAt) {
+        Long lastInvalidation = invalidatedAt.getIfPresent(userId);
+        return lastInvalidation != null && lastInvalidation >= startedAt;
+    }
+
+    // Every instance needs every invalidation, so each one joins with its own group id, stable across restarts
+    @KafkaListener(topics = "user_events", groupId = "transaction-user-cache-${user-cache.instance-id}",
+            properties = {"auto.offset.reset=latest"})
+    public void onUserEvent(UserEvent event) {
+        logger.info("Invalidating cached user {} after {} event", event.getUserId(), event.getEventType());
+        if (event.getUserId() != null) {
+            invalidatedAt.put(event.getUserId(), System.nanoTime());
+            usersById.invalidate(event.getUserId());
+            // Drops every spelling of the address the user was looked up by, and the old one after a change
+            Set<String> emails = emailsByUserId.asMap().remove(event.getUserId());
+            if (emails != null) {
+                userIdsByEmail.invalidateAll(emails);
+            }
+        }
+        if (event.getEmail() != null) {
+            userIdsByEmail.invalidate(event.getEmail());
+        }
+    }
+
+    private static class EmailLookup {
+        private final Long userId;
+        private final long startedAt; // When the fetch began, compared against later invalidations
+
+        EmailLookup(Long userId, long startedAt) {
+            this.userId = userId;
+            this.startedAt = startedAt;
+        }
+    }
+}
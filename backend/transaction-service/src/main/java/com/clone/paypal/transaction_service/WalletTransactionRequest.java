@@ -5,12 +5,19 @@ import java.math.BigDecimal;
 public class WalletTransactionRequest {
     private Long userId;
     private BigDecimal amount;
+    private String reference; // Idempotency key WALLET-SERVICE applies a credit at most once for
 
     public WalletTransactionRequest(Long userId, BigDecimal amount) {
         this.userId = userId;
         this.amount = amount;
     }
 
+    public WalletTransactionRequest(Long userId, BigDecimal amount, String reference) {
+        this.userId = userId;
+        this.amount = amount;
+        this.reference = reference;
+    }
+
     public Long getUserId() {
         return userId;
     }
@@ -26,4 +33,12 @@ public class WalletTransactionRequest {
     public void setAmount(BigDecimal amount) {
         this.amount = amount;
     }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
 }
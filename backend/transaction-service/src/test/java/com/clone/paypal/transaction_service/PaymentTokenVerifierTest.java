@@ -0,0 +1,157 @@
+package com.clone.paypal.transaction_service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentTokenVerifierTest {
+    private static final String SECRET = "test-secret";
+    private static final String JTI = "3f1c2a9e-5b7d-4c1e-9a0f-2d6b8e4c7a11";
+
+    @Mock
+    private PaymentTokenSpendRepository paymentTokenSpendRepository;
+
+    @InjectMocks
+    private PaymentTokenVerifier verifier;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(verifier, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(verifier, "secret", SECRET);
+    }
+
+    @Test
+    void acceptsValidTokenAndRecordsSpend() {
+        when(paymentTokenSpendRepository.existsById(JTI)).thenReturn(false);
+        when(paymentTokenSpendRepository.spend(JTI, new BigDecimal("40"))).thenReturn(1);
+
+        assertEquals(JTI, verifier.verify(token(claims(7L, "payment", "100", 300)), 7L, new BigDecimal("40")));
+        verify(paymentTokenSpendRepository).saveAndFlush(any(PaymentTokenSpend.class));
+    }
+
+    @Test
+    void releaseGivesReservedAmountBack() {
+        verifier.release(JTI, new BigDecimal("40"));
+
+        verify(paymentTokenSpendRepository).release(JTI, new BigDecimal("40"));
+    }
+
+    @Test
+    void rejectsBadSignature() {
+        String token = token(claims(7L, "payment", "100", 300));
+        String tampered = token.substring(0, token.indexOf('.') + 1) + sign("other payload", SECRET);
+
+        assertRejected("Invalid payment token signature", tampered, 7L, "10");
+    }
+
+    @Test
+    void rejectsTokenSignedWithAnotherSecret() {
+        String payload = encode(claims(7L, "payment", "100", 300));
+
+        assertRejected("Invalid payment token signature", payload + "." + sign(payload, "wrong-secret"), 7L, "10");
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        assertRejected("Payment token expired", token(claims(7L, "payment", "100", -1)), 7L, "10");
+    }
+
+    @Test
+    void rejectsWrongSubject() {
+        assertRejected("Payment token was issued to a different user", token(claims(7L, "payment", "100", 300)), 8L, "10");
+    }
+
+    @Test
+    void rejectsWrongScope() {
+        assertRejected("Payment token has wrong scope", token(claims(7L, "login", "100", 300)), 7L, "10");
+    }
+
+    @Test
+    void rejectsAmountOverLimit() {
+        assertRejected("Amount exceeds payment token limit", token(claims(7L, "payment", "100", 300)), 7L, "100.01");
+        verify(paymentTokenSpendRepository, never()).spend(any(), any());
+    }
+
+    @Test
+    void rejectsReplayOnceLimitIsSpent() {
+        String token = token(claims(7L, "payment", "100", 300));
+        when(paymentTokenSpendRepository.existsById(JTI)).thenReturn(false, true);
+        when(paymentTokenSpendRepository.spend(eq(JTI), any())).thenReturn(1, 0);
+
+        assertDoesNotThrow(() -> verifier.verify(token, 7L, new BigDecimal("60")));
+        assertRejected("Payment token limit already used", token, 7L, "60");
+        verify(paymentTokenSpendRepository).saveAndFlush(any(PaymentTokenSpend.class));
+    }
+
+    @Test
+    void rejectsTokenWithoutJti() {
+        Map<String, Object> claims = claims(7L, "payment", "100", 300);
+        claims.remove("jti");
+
+        assertRejected("Malformed payment token", token(claims), 7L, "10");
+    }
+
+    private void assertRejected(String message, String token, Long senderId, String amount) {
+        InvalidPaymentTokenException e = assertThrows(InvalidPaymentTokenException.class,
+                () -> verifier.verify(token, senderId, new BigDecimal(amount)));
+        assertEquals(message, e.getMessage());
+    }
+
+    private static Map<String, Object> claims(Long subject, String scope, String max, long expiresInSeconds) {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", subject);
+        claims.put("scope", scope);
+        claims.put("max", max);
+        claims.put("exp", Instant.now().plusSeconds(expiresInSeconds).getEpochSecond());
+        claims.put("jti", JTI);
+        return claims;
+    }
+
+    private String token(Map<String, Object> claims) {
+        String payload = encode(claims);
+        return payload + "." + sign(payload, SECRET);
+    }
+
+    private String encode(Map<String, Object> claims) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(claims));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sign(String payload, String secret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
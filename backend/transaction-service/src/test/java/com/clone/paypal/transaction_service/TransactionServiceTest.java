@@ -0,0 +1,117 @@
+package com.clone.paypal.transaction_service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceTest {
+    private static final String TOKEN = "payload.signature";
+    private static final String JTI = "jti-1";
+    private static final BigDecimal AMOUNT = new BigDecimal("25");
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    @Mock
+    private PaymentTokenVerifier paymentTokenVerifier;
+
+    @Mock
+    private UserLookupService userLookupService;
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    @Test
+    void keepsTokenSpendOfCompletedPayment() {
+        givenToken();
+        when(userLookupService.getById(1L)).thenReturn(user(1L));
+        when(userLookupService.getByEmail("bob@example.com")).thenReturn(user(2L));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Transaction transaction = pay();
+
+        assertEquals("COMPLETED", transaction.getStatus());
+        verify(paymentTokenVerifier, never()).release(anyString(), any());
+    }
+
+    @Test
+    void releasesTokenSpendWhenRecipientIsMissing() {
+        givenToken();
+        when(userLookupService.getById(1L)).thenReturn(user(1L));
+        when(userLookupService.getByEmail("bob@example.com"))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Transaction transaction = pay();
+
+        assertEquals("FAILED: Recipient user not found", transaction.getStatus());
+        verify(paymentTokenVerifier).release(JTI, AMOUNT);
+        verify(restTemplate, never()).postForObject(anyString(), any(), eq(Void.class));
+    }
+
+    @Test
+    void releasesTokenSpendWhenBalanceIsTooLow() {
+        givenToken();
+        when(userLookupService.getById(1L)).thenReturn(user(1L));
+        when(userLookupService.getByEmail("bob@example.com")).thenReturn(user(2L));
+        when(restTemplate.postForObject(eq("http://WALLET-SERVICE/api/wallets/debit"), any(), eq(Void.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", null, null, null));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Transaction transaction = pay();
+
+        assertEquals("FAILED: Insufficient balance", transaction.getStatus());
+        verify(paymentTokenVerifier).release(JTI, AMOUNT);
+    }
+
+    @Test
+    void keepsTokenSpendWhenDebitOutcomeIsUnknown() {
+        givenToken();
+        when(userLookupService.getById(1L)).thenReturn(user(1L));
+        when(userLookupService.getByEmail("bob@example.com")).thenReturn(user(2L));
+        when(restTemplate.postForObject(eq("http://WALLET-SERVICE/api/wallets/debit"), any(), eq(Void.class)))
+                .thenThrow(new IllegalStateException("Read timed out"));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        pay();
+
+        verify(paymentTokenVerifier, never()).release(anyString(), any());
+    }
+
+    private void givenToken() {
+        when(paymentTokenVerifier.verify(TOKEN, 1L, AMOUNT)).thenReturn(JTI);
+    }
+
+    private Transaction pay() {
+        return transactionService.performTransaction(1L, "bob@example.com", AMOUNT, "Lunch", null, TOKEN);
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setFirstName("User");
+        user.setLastName(String.valueOf(id));
+        return user;
+    }
+}
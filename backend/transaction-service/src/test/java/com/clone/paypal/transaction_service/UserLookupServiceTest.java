@@ -0,0 +1,83 @@
+package com.clone.paypal.transaction_service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserLookupServiceTest {
+    private static final String ALICE_URL = "http://USER-SERVICE/api/users/email/alice@example.com";
+    private static final String BOB_URL = "http://USER-SERVICE/api/users/email/bob@example.com";
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @InjectMocks
+    private UserLookupService userLookupService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userLookupService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userLookupService, "maxSize", 100L);
+        ReflectionTestUtils.setField(userLookupService, "ttlMinutes", 10L);
+        userLookupService.init();
+    }
+
+    @Test
+    void userEventDropsOnlyThatUsersEmails() {
+        when(restTemplate.getForObject(eq(ALICE_URL), eq(User.class))).thenReturn(user(1L, "alice@example.com"));
+        when(restTemplate.getForObject(eq(BOB_URL), eq(User.class))).thenReturn(user(2L, "bob@example.com"));
+        userLookupService.getByEmail("alice@example.com");
+        userLookupService.getByEmail("bob@example.com");
+
+        userLookupService.onUserEvent(event(1L, "alice.new@example.com"));
+        userLookupService.getByEmail("alice@example.com");
+        userLookupService.getByEmail("bob@example.com");
+
+        verify(restTemplate, times(2)).getForObject(ALICE_URL, User.class);
+        verify(restTemplate, times(1)).getForObject(BOB_URL, User.class);
+    }
+
+    @Test
+    void emailLookupThatRacedWithAnInvalidationIsNotKept() {
+        when(restTemplate.getForObject(eq(ALICE_URL), eq(User.class)))
+                .thenAnswer(invocation -> {
+                    userLookupService.onUserEvent(event(1L, "alice.new@example.com")); // Address changed mid-fetch
+                    return user(1L, "alice@example.com");
+                })
+                .thenReturn(user(3L, "alice@example.com"));
+
+        User found = userLookupService.getByEmail("alice@example.com");
+
+        assertEquals(3L, found.getId());
+        userLookupService.getByEmail("alice@example.com");
+        verify(restTemplate, times(2)).getForObject(ALICE_URL, User.class);
+    }
+
+    private static User user(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        return user;
+    }
+
+    private static UserEvent event(Long userId, String email) {
+        UserEvent event = new UserEvent();
+        event.setEventType(UserEvent.UPDATED);
+        event.setUserId(userId);
+        event.setEmail(email);
+        return event;
+    }
+}
@@ -0,0 +1,131 @@
+package com.clone.paypal.user_service;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "account_deletions", indexes = @Index(name = "idx_account_deletions_status", columnList = "status, lastPublishedAt"))
+public class AccountDeletion {
+    public static final String IN_PROGRESS = "in_progress";
+    public static final String COMPLETED = "completed";
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(nullable = false)
+    private String status; // 'in_progress', 'completed'
+
+    private boolean walletDeleted;
+
+    private boolean transactionsDeleted;
+
+    private boolean notificationsDeleted;
+
+    @Column(nullable = false)
+    private LocalDateTime requestedAt;
+
+    private LocalDateTime lastPublishedAt;
+
+    private LocalDateTime completedAt;
+
+    public AccountDeletion() {
+    }
+
+    public AccountDeletion(Long userId, String email, LocalDateTime requestedAt) {
+        this.userId = userId;
+        this.email = email;
+        this.status = IN_PROGRESS;
+        this.requestedAt = requestedAt;
+        this.lastPublishedAt = requestedAt;
+    }
+
+    public void markDone(String service, LocalDateTime now) {
+        switch (service) {
+            case DeletionProgressEvent.WALLET -> walletDeleted = true;
+            case DeletionProgressEvent.TRANSACTIONS -> transactionsDeleted = true;
+            case DeletionProgressEvent.NOTIFICATIONS -> notificationsDeleted = true;
+            default -> {
+                return;
+            }
+        }
+        if (walletDeleted && transactionsDeleted && notificationsDeleted && !COMPLETED.equals(status)) {
+            status = COMPLETED;
+            completedAt = now;
+        }
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public boolean isWalletDeleted() {
+        return walletDeleted;
+    }
+
+    public void setWalletDeleted(boolean walletDeleted) {
+        this.walletDeleted = walletDeleted;
+    }
+
+    public boolean isTransactionsDeleted() {
+        return transactionsDeleted;
+    }
+
+    public void setTransactionsDeleted(boolean transactionsDeleted) {
+        this.transactionsDeleted = transactionsDeleted;
+    }
+
+    public boolean isNotificationsDeleted() {
+        return notificationsDeleted;
+    }
+
+    public void setNotificationsDeleted(boolean notificationsDeleted) {
+        this.notificationsDeleted = notificationsDeleted;
+    }
+
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    public void setRequestedAt(LocalDateTime requestedAt) {
+        this.requestedAt = requestedAt;
+    }
+
+    public LocalDateTime getLastPublishedAt() {
+        return lastPublishedAt;
+    }
+
+    public void setLastPublishedAt(LocalDateTime lastPublishedAt) {
+        this.lastPublishedAt = lastPublishedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,9 @@
+package com.clone.paypal.user_service;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AccountDeletionRepository extends JpaRepository<AccountDeletion, Long> {
+    List<AccountDeletion> findTop100ByStatusAndLastPublishedAtBefore(String status, LocalDateTime cutoff);
+}
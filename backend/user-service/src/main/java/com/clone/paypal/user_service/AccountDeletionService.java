@@ -0,0 +1,81 @@
+package com.clone.paypal.user_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Coordinates account deletion across services.
+ * user-service removes its own rows synchronously, records an AccountDeletion and publishes a
+ * DELETED user event; wallet, transaction and notification services each clean up and report
+ * back on user_deletion_progress. Deletions that have not completed are re-published
+ * periodically, so a lost event or a crashed consumer only delays completion.
+ */
+@Service
+public class AccountDeletionService {
+    private static final Logger logger = LoggerFactory.getLogger(AccountDeletionService.class);
+
+    @Autowired
+    private AccountDeletionRepository accountDeletionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MoneyRequestRepository moneyRequestRepository;
+
+    @Autowired
+    private MoneyRequestService moneyRequestService;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Value("${deletion.republish-after-minutes:5}")
+    private long republishAfterMinutes;
+
+    @Transactional
+    public AccountDeletion start(User user) {
+        AccountDeletion deletion = accountDeletionRepository.findById(user.getId())
+                .orElseGet(() -> accountDeletionRepository.save(new AccountDeletion(user.getId(), user.getEmail(), now())));
+        moneyRequestService.releaseCountersOf(user.getId());
+        moneyRequestRepository.deleteByUserId(user.getId());
+        userRepository.delete(user);
+        return deletion;
+    }
+
+    public void publish(AccountDeletion deletion) {
+        kafkaProducerService.sendUserEvent(new UserEvent(UserEvent.DELETED, deletion.getUserId(), deletion.getEmail()));
+        deletion.setLastPublishedAt(now());
+        accountDeletionRepository.save(deletion);
+    }
+
+    @Scheduled(fixedDelayString = "${deletion.republish-check-interval-ms:60000}")
+    public void republishStalled() {
+        LocalDateTime cutoff = now().minusMinutes(republishAfterMinutes);
+        for (AccountDeletion deletion : accountDeletionRepository.findTop100ByStatusAndLastPublishedAtBefore(AccountDeletion.IN_PROGRESS, cutoff)) {
+            logger.info("Re-publishing deletion of user {}", deletion.getUserId());
+            publish(deletion);
+        }
+    }
+
+    @KafkaListener(topics = "user_deletion_progress", groupId = "user-service-deletions",
+            properties = {"spring.json.value.default.type=com.clone.paypal.user_service.DeletionProgressEvent"})
+    public void onProgress(DeletionProgressEvent event) {
+        accountDeletionRepository.findById(event.getUserId()).ifPresent(deletion -> {
+            deletion.markDone(event.getService(), now());
+            accountDeletionRepository.save(deletion);
+            logger.info("Deletion of user {}: {} done, status {}", event.getUserId(), event.getService(), deletion.getStatus());
+        });
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of("Asia/Kolkata"));
+    }
+}
@@ -0,0 +1,24 @@
+package com.clone.paypal.user_service;
+
+import java.util.List;
+
+public class BatchUserLookupRequest {
+    private List<Long> ids;
+    private List<String> emails;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getEmails() {
+        return emails;
+    }
+
+    public void setEmails(List<String> emails) {
+        this.emails = emails;
+    }
+}
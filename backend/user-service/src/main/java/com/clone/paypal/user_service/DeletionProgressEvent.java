@@ -0,0 +1,29 @@
+package com.clone.paypal.user_service;
+
+public class DeletionProgressEvent {
+    public static final String WALLET = "wallet";
+    public static final String TRANSACTIONS = "transactions";
+    public static final String NOTIFICATIONS = "notifications";
+
+    private Long userId;
+    private String service;
+
+    public DeletionProgressEvent() {
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public void setService(String service) {
+        this.service = service;
+    }
+}
@@ -0,0 +1,7 @@
+package com.clone.paypal.user_service;
+
+public class HashingCapacityExceededException extends RuntimeException {
+    public HashingCapacityExceededException(String message) {
+        super(message);
+    }
+}
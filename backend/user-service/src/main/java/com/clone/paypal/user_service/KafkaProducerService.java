@@ -1,17 +1,43 @@
 package com.clone.paypal.user_service;
 
+import com.clone.paypal.events.EventEnvelope;
+import com.clone.paypal.events.EventPublisher;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 @Service
 public class KafkaProducerService {
     private static final String TOPIC = "notification_topic";
+    private static final String USER_EVENTS_TOPIC = "user_events";
+    private static final String PAYMENT_COMMANDS_TOPIC = "payment_commands";
 
     @Autowired
-    private KafkaTemplate<String, NotificationRequest> kafkaTemplate;
+    private EventPublisher eventPublisher;
 
     public void sendNotificationEvent(NotificationRequest request) {
-        kafkaTemplate.send(TOPIC, request);
+        eventPublisher.publish(TOPIC, notificationEnvelope(request));
     }
-}
\ No newline at end of file
+
+    public void sendNotificationEvents(Collection<NotificationRequest> requests) {
+        List<EventEnvelope<NotificationRequest>> envelopes = new ArrayList<>(requests.size());
+        for (NotificationRequest request : requests) {
+            envelopes.add(notificationEnvelope(request));
+        }
+        eventPublisher.publishAll(TOPIC, envelopes);
+    }
+
+    public void sendPaymentCommand(PaymentCommand command) {
+        eventPublisher.publish(PAYMENT_COMMANDS_TOPIC, EventEnvelope.of("payment.command", command.getSenderId(), command));
+    }
+
+    public void sendUserEvent(UserEvent event) {
+        eventPublisher.publish(USER_EVENTS_TOPIC, EventEnvelope.of("user." + event.getEventType().toLowerCase(), event.getUserId(), event));
+    }
+
+    private static EventEnvelope<NotificationRequest> notificationEnvelope(NotificationRequest request) {
+        return EventEnvelope.withId(request.getEventId(), "notification", request.getUserId(), request);
+    }
+}
@@ -5,8 +5,22 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "money_requests")
+@Table(name = "money_requests", indexes = {
+        @Index(name = "idx_money_requests_recipient_status_ts", columnList = "recipientId, status, timestamp"),
+        @Index(name = "idx_money_requests_requester_status_ts", columnList = "requesterId, status, timestamp"),
+        // Status-less inbox and outbox pages walk these
+        @Index(name = "idx_money_requests_recipient_ts_id", columnList = "recipientId, timestamp, id"),
+        @Index(name = "idx_money_requests_requester_ts_id", columnList = "requesterId, timestamp, id"),
+        @Index(name = "idx_money_requests_status_expires", columnList = "status, expiresAt"),
+        @Index(name = "idx_money_requests_group", columnList = "groupId")
+})
 public class MoneyRequest {
+    public static final String PENDING = "pending";
+    public static final String APPROVING = "approving";
+    public static final String APPROVED = "approved";
+    public static final String REJECTED = "rejected";
+    public static final String EXPIRED = "expired";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -24,11 +38,26 @@ public class MoneyRequest {
     private String message;
 
     @Column(nullable = false)
-    private String status; // 'pending', 'approved', 'rejected'
+    private String status; // 'pending', 'approving', 'approved', 'rejected', 'expired'
 
     @Column(nullable = false)
     private LocalDateTime timestamp;
 
+    @Column
+    private LocalDateTime expiresAt;
+
+    @Column
+    private Long groupId; // Set when the request is one share of a split bill
+
+    @Column(nullable = false)
+    private int approvalAttempt; // Bumped on every pending -> approving move; part of the payment reference
+
+    @Column
+    private LocalDateTime approvalStartedAt;
+
+    @Column(nullable = false)
+    private int approvalRepublishes; // Payment commands re-sent for the current attempt
+
     public MoneyRequest() {
     }
 
@@ -96,4 +125,48 @@ public class MoneyRequest {
     public void setTimestamp(LocalDateTime timestamp) {
         this.timestamp = timestamp;
     }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public int getApprovalAttempt() {
+        return approvalAttempt;
+    }
+
+    public void setApprovalAttempt(int approvalAttempt) {
+        this.approvalAttempt = approvalAttempt;
+    }
+
+    public int getApprovalRepublishes() {
+        return approvalRepublishes;
+    }
+
+    public void setApprovalRepublishes(int approvalRepublishes) {
+        this.approvalRepublishes = approvalRepublishes;
+    }
+
+    public LocalDateTime getApprovalStartedAt() {
+        return approvalStartedAt;
+    }
+
+    public void setApprovalStartedAt(LocalDateTime approvalStartedAt) {
+        this.approvalStartedAt = approvalStartedAt;
+    }
+
+    public String paymentReference() {
+        return "money-request:" + id + ":" + approvalAttempt;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
 }
@@ -0,0 +1,217 @@
+package com.clone.paypal.user_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+/**
+ * Asynchronous approval of money requests. Approving moves the request to 'approving' and
+ * publishes a payment command referenced as money-request:{id}:{attempt}; TRANSACTION-SERVICE
+ * pays at most once per reference and the request is settled when its transaction event arrives.
+ * A payment that completes after its request stopped waiting for it is paid back with a refund command.
+ */
+@Service
+public class MoneyRequestApprovalService {
+    private static final Logger logger = LoggerFactory.getLogger(MoneyRequestApprovalService.class);
+    private static final String REFERENCE_PREFIX = "money-request:";
+
+    @Autowired
+    private MoneyRequestRepository moneyRequestRepository;
+
+    @Autowired
+    private MoneyRequestService moneyRequestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PaymentTokenService paymentTokenService;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Autowired
+    private MoneyRequestRefundRepository moneyRequestRefundRepository;
+
+    @Value("${money-requests.approval.republish-after-seconds:120}")
+    private long republishAfterSeconds;
+
+    @Value("${money-requests.approval.max-republishes:5}")
+    private int maxRepublishes;
+
+    /** Sends (or re-sends) the payment command for the request's current approval attempt. */
+    public boolean sendPaymentCommand(MoneyRequest request) {
+        Optional<User> requester = userRepository.findById(request.getRequesterId());
+        if (requester.isEmpty()) {
+            return false;
+        }
+
+        // The payer's PIN was checked when approval started; the command carries a short-lived token instead
+        String paymentToken = paymentTokenService.issueForCommand(request.getRecipientId(), request.getAmount());
+        kafkaProducerService.sendPaymentCommand(new PaymentCommand(
+                request.paymentReference(),
+                request.getRecipientId(), // The person who approves is the sender
+                requester.get().getEmail(), // The person who requested is the recipient
+                request.getAmount(),
+                "Payment for money request: " + request.getMessage(),
+                paymentToken));
+        return true;
+    }
+
+    @KafkaListener(topics = "transaction_events", groupId = "user-service-money-requests",
+            properties = {"spring.json.value.default.type=com.clone.paypal.user_service.TransactionEvent"})
+    public void onTransactionEvent(TransactionEvent event) {
+        String reference = event.getReference();
+        if (reference == null || "PENDING".equals(event.getStatus())) {
+            return;
+        }
+        if (reference.startsWith(MoneyRequestRefund.REFERENCE_PREFIX)) {
+            onRefundOutcome(event);
+            return;
+        }
+        if (!reference.startsWith(REFERENCE_PREFIX)) {
+            return;
+        }
+
+        String[] parts = reference.substring(REFERENCE_PREFIX.length()).split(":");
+        Long requestId = Long.valueOf(parts[0]);
+        int attempt = Integer.parseInt(parts[1]);
+        boolean paid = "COMPLETED".equals(event.getStatus());
+
+        Optional<MoneyRequest> found = moneyRequestRepository.findById(requestId);
+        if (found.isEmpty()) {
+            if (paid) {
+                refund(event, requestId); // Cancelled after the attempt was given up
+            }
+            return;
+        }
+        MoneyRequest request = found.get();
+        if (!moneyRequestService.finishApproval(request, attempt, paid)) {
+            if (paid) {
+                settleLatePayment(request, attempt, event);
+            }
+            return; // Duplicate or stale outcome
+        }
+        if (paid) {
+            String requesterMessage = String.format("Your money request for %.2f was approved.", request.getAmount());
+            kafkaProducerService.sendNotificationEvent(new NotificationRequest(request.getRequesterId(), requesterMessage, "Money Request Approved"));
+        } else {
+            String reason = event.getStatus().replace("FAILED: ", "");
+            String payerMessage = String.format("Paying the money request for %.2f failed: %s", request.getAmount(), reason);
+            kafkaProducerService.sendNotificationEvent(new NotificationRequest(request.getRecipientId(), payerMessage, "Money Request"));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${money-requests.approval.republish-check-interval-ms:30000}")
+    public void republishStalled() {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Kolkata"));
+        LocalDateTime cutoff = now.minusSeconds(republishAfterSeconds);
+        for (MoneyRequest request : moneyRequestRepository.findTop100ByStatusAndApprovalStartedAtBefore(MoneyRequest.APPROVING, cutoff)) {
+            if (request.getApprovalRepublishes() >= maxRepublishes) {
+                giveUp(request);
+            } else if (moneyRequestRepository.touchApproval(request.getId(), request.getApprovalAttempt(), now) == 1) {
+                logger.info("Re-sending payment command {}", request.paymentReference());
+                sendPaymentCommand(request);
+            }
+        }
+        for (MoneyRequestRefund refund : moneyRequestRefundRepository.findTop100ByStatusAndLastPublishedAtBefore(MoneyRequestRefund.PENDING, cutoff)) {
+            if (moneyRequestRefundRepository.touch(refund.getPaymentReference(), cutoff, now) == 1) {
+                logger.info("Re-sending refund command {}", refund.refundReference());
+                sendRefundCommand(refund);
+            }
+        }
+    }
+
+    // No outcome after every re-send: return the request to pending so it can be retried, cancelled or expire.
+    // A payment that still lands for this attempt later is picked up by settleLatePayment.
+    private void giveUp(MoneyRequest request) {
+        if (!moneyRequestService.finishApproval(request, request.getApprovalAttempt(), false)) {
+            return;
+        }
+        logger.warn("No outcome for payment {} after {} re-sends; request is pending again",
+                request.paymentReference(), request.getApprovalRepublishes());
+        String payerMessage = String.format("Paying the money request for %.2f could not be confirmed. Please try again.", request.getAmount());
+        kafkaProducerService.sendNotificationEvent(new NotificationRequest(request.getRecipientId(), payerMessage, "Money Request"));
+    }
+
+    private void settleLatePayment(MoneyRequest request, int attempt, TransactionEvent event) {
+        if (MoneyRequest.APPROVED.equals(request.getStatus()) && request.getApprovalAttempt() == attempt) {
+            return; // Redelivered outcome of the payment that settled the request
+        }
+        if (MoneyRequest.PENDING.equals(request.getStatus())
+                && moneyRequestService.transition(request, MoneyRequest.PENDING, MoneyRequest.APPROVED)) {
+            logger.info("Late payment {} settled request {}", event.getReference(), request.getId());
+            String requesterMessage = String.format("Your money request for %.2f was approved.", request.getAmount());
+            kafkaProducerService.sendNotificationEvent(new NotificationRequest(request.getRequesterId(), requesterMessage, "Money Request Approved"));
+            return;
+        }
+        // Expired, or approved again under a newer attempt: the payer was charged twice
+        refund(event, request.getId());
+    }
+
+    private void refund(TransactionEvent event, Long requestId) {
+        if (moneyRequestRefundRepository.existsById(event.getReference())) {
+            return; // Redelivered outcome; the refund is already under way
+        }
+        MoneyRequestRefund refund;
+        try {
+            refund = moneyRequestRefundRepository.saveAndFlush(new MoneyRequestRefund(event.getReference(), requestId,
+                    event.getSenderId(), event.getRecipientId(), event.getAmount(), now()));
+        } catch (DataIntegrityViolationException e) {
+            return;
+        }
+        logger.warn("Payment {} completed after request {} stopped waiting for it; refunding the payer", event.getReference(), requestId);
+        sendRefundCommand(refund);
+    }
+
+    private void sendRefundCommand(MoneyRequestRefund refund) {
+        Optional<User> payer = userRepository.findById(refund.getPayerId());
+        if (payer.isEmpty()) {
+            failRefund(refund, "Payer account no longer exists");
+            return;
+        }
+        // Paid back from the requester, who received the payment; the refund reference keeps it to one payment
+        String paymentToken = paymentTokenService.issueForCommand(refund.getRequesterId(), refund.getAmount());
+        kafkaProducerService.sendPaymentCommand(new PaymentCommand(
+                refund.refundReference(),
+                refund.getRequesterId(),
+                payer.get().getEmail(),
+                refund.getAmount(),
+                "Refund of a duplicate money request payment",
+                paymentToken));
+    }
+
+    private void onRefundOutcome(TransactionEvent event) {
+        String paymentReference = event.getReference().substring(MoneyRequestRefund.REFERENCE_PREFIX.length());
+        moneyRequestRefundRepository.findById(paymentReference).ifPresent(refund -> {
+            if (!"COMPLETED".equals(event.getStatus())) {
+                failRefund(refund, event.getStatus().replace("FAILED: ", ""));
+                return;
+            }
+            if (moneyRequestRefundRepository.finish(paymentReference, MoneyRequestRefund.COMPLETED, null) == 1) {
+                logger.info("Refunded late payment {}", paymentReference);
+                String payerMessage = String.format("Your extra payment of %.2f for a money request was refunded.", refund.getAmount());
+                kafkaProducerService.sendNotificationEvent(new NotificationRequest(refund.getPayerId(), payerMessage, "Money Request"));
+            }
+        });
+    }
+
+    private void failRefund(MoneyRequestRefund refund, String reason) {
+        if (moneyRequestRefundRepository.finish(refund.getPaymentReference(), MoneyRequestRefund.FAILED, reason) == 1) {
+            logger.error("Refund of late payment {} failed ({}); left in money_request_refunds for reconciliation",
+                    refund.getPaymentReference(), reason);
+        }
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of("Asia/Kolkata"));
+    }
+}
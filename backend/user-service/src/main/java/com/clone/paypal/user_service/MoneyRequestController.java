@@ -1,15 +1,21 @@
 package com.clone.paypal.user_service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
 import java.math.BigDecimal;
 import java.time.ZoneId;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.IntFunction;
 
 @RestController
 @RequestMapping("/api/requests")
@@ -25,7 +31,30 @@ public class MoneyRequestController {
     private KafkaProducerService kafkaProducerService;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private MoneyRequestService moneyRequestService;
+
+    @Autowired
+    private MoneyRequestGroupService moneyRequestGroupService;
+
+    @Autowired
+    private MoneyRequestApprovalService moneyRequestApprovalService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private MoneyRequestGroupRepository moneyRequestGroupRepository;
+
+    @Value("${money-requests.group.max-recipients:50}")
+    private int maxGroupRecipients;
+
+    @Value("${money-requests.expiry.default-hours:168}")
+    private long defaultExpiryHours;
+
+    @Value("${money-requests.expiry.max-hours:720}")
+    private long maxExpiryHours;
+
+    private static final int MAX_PAGE_SIZE = 100;
 
     // DTO for creating money requests
     public static class CreateMoneyRequestDto {
@@ -33,6 +62,16 @@ public class MoneyRequestController {
         public Long recipientId;
         public BigDecimal amount;
         public String message;
+        public Integer expiresInHours;
+    }
+
+    public static class CreateGroupRequestDto {
+        public Long requesterId;
+        public List<Long> recipientIds;
+        public BigDecimal totalAmount;
+        public boolean includeRequester; // Requester keeps a share and is not billed for it
+        public String message;
+        public Integer expiresInHours;
     }
 
     public static class ApproveRequestDto {
@@ -42,20 +81,22 @@ public class MoneyRequestController {
     @PostMapping("/create")
     public ResponseEntity<?> createMoneyRequest(@RequestBody CreateMoneyRequestDto requestDto) {
         try {
+            LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Kolkata"));
             MoneyRequest moneyRequest = new MoneyRequest(
                     requestDto.requesterId,
                     requestDto.recipientId,
                     requestDto.amount,
                     requestDto.message,
-                    "pending",
-                    LocalDateTime.now(ZoneId.of("Asia/Kolkata"))
+                    MoneyRequest.PENDING,
+                    now
             );
+            moneyRequest.setExpiresAt(now.plusHours(expiryHours(requestDto.expiresInHours)));
 
-            MoneyRequest savedRequest = moneyRequestRepository.save(moneyRequest);
+            MoneyRequest savedRequest = moneyRequestService.create(moneyRequest);
 
             // Send notification
             String message = String.format("You have a new money request for %.2f.", requestDto.amount);
-            kafkaProducerService.sendNotificationEvent(new NotificationRequest(requestDto.recipientId, message, "Money Request"));
+            kafkaProducerService.sendNotificationEvent(new NotificationRequest(requestDto.recipientId, message, "Money Request", "money_request", requestDto.amount));
 
             return ResponseEntity.ok(Map.of("message", "Money request created successfully", "request", savedRequest));
         } catch (Exception e) {
@@ -64,6 +105,81 @@ public class MoneyRequestController {
         }
     }
 
+    @PostMapping("/groups")
+    public ResponseEntity<?> createGroupRequest(@RequestBody CreateGroupRequestDto requestDto) {
+        List<Long> recipientIds = requestDto.recipientIds == null ? List.of()
+                : requestDto.recipientIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (requestDto.requesterId == null || recipientIds.isEmpty() || recipientIds.contains(requestDto.requesterId)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "A group request needs a requester and at least one other recipient"));
+        }
+        if (recipientIds.size() > maxGroupRecipients) {
+            return ResponseEntity.badRequest().body(Map.of("error", "A group request can have at most " + maxGroupRecipients + " recipients"));
+        }
+        int parts = recipientIds.size() + (requestDto.includeRequester ? 1 : 0);
+        if (requestDto.totalAmount == null || requestDto.totalAmount.compareTo(new BigDecimal("0.01").multiply(BigDecimal.valueOf(parts))) < 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Total amount is too small to split"));
+        }
+
+        try {
+            List<BigDecimal> shares = MoneyRequestGroupService.split(requestDto.totalAmount, parts);
+            if (requestDto.includeRequester) {
+                shares = shares.subList(1, shares.size());
+            }
+            LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Kolkata"));
+            MoneyRequestGroup group = moneyRequestGroupService.create(requestDto.requesterId, recipientIds, shares,
+                    requestDto.totalAmount, requestDto.message, now, now.plusHours(expiryHours(requestDto.expiresInHours)));
+
+            List<NotificationRequest> notifications = new ArrayList<>(recipientIds.size());
+            for (int i = 0; i < recipientIds.size(); i++) {
+                String message = String.format("You have a new money request for %.2f (split bill).", shares.get(i));
+                notifications.add(new NotificationRequest(recipientIds.get(i), message, "Money Request", "money_request", shares.get(i)));
+            }
+            kafkaProducerService.sendNotificationEvents(notifications);
+
+            return ResponseEntity.ok(Map.of("message", "Group request created successfully", "group", group,
+                    "requests", moneyRequestRepository.findByGroupIdOrderByIdAsc(group.getId())));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to create group request"));
+        }
+    }
+
+    @GetMapping("/groups/{groupId}")
+    public ResponseEntity<?> getGroupProgress(@PathVariable Long groupId) {
+        Optional<MoneyRequestGroup> groupOptional = moneyRequestGroupRepository.findById(groupId);
+        if (groupOptional.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        long paidCount = 0;
+        long pendingCount = 0;
+        BigDecimal paidAmount = BigDecimal.ZERO;
+        for (Object[] row : moneyRequestRepository.summarizeGroup(groupId)) {
+            if (MoneyRequest.APPROVED.equals(row[0])) {
+                paidCount = (Long) row[1];
+                paidAmount = (BigDecimal) row[2];
+            } else if (MoneyRequest.PENDING.equals(row[0])) {
+                pendingCount = (Long) row[1];
+            }
+        }
+
+        MoneyRequestGroup group = groupOptional.get();
+        Map<String, Object> body = new HashMap<>();
+        body.put("group", group);
+        body.put("requests", moneyRequestRepository.findByGroupIdOrderByIdAsc(groupId));
+        body.put("paidCount", paidCount);
+        body.put("pendingCount", pendingCount);
+        body.put("paidAmount", paidAmount);
+        return ResponseEntity.ok(body);
+    }
+
+    private long expiryHours(Integer requested) {
+        if (requested == null) {
+            return defaultExpiryHours;
+        }
+        return Math.max(1, Math.min(requested, maxExpiryHours));
+    }
+
     @GetMapping("/user/{id}")
     public ResponseEntity<?> getUserRequests(@PathVariable Long id) {
         try {
@@ -75,53 +191,84 @@ public class MoneyRequestController {
         }
     }
 
+    @GetMapping("/user/{id}/inbox")
+    public ResponseEntity<?> getInbox(@PathVariable Long id,
+                                      @RequestParam(required = false) String status,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(defaultValue = "20") int size) {
+        return page(cursor, size, pageSize -> moneyRequestService.inbox(id, status, cursor, pageSize));
+    }
+
+    @GetMapping("/user/{id}/outbox")
+    public ResponseEntity<?> getOutbox(@PathVariable Long id,
+                                       @RequestParam(required = false) String status,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(defaultValue = "20") int size) {
+        return page(cursor, size, pageSize -> moneyRequestService.outbox(id, status, cursor, pageSize));
+    }
+
+    @GetMapping("/user/{id}/pending-count")
+    public ResponseEntity<?> getPendingCount(@PathVariable Long id) {
+        return ResponseEntity.ok(Map.of("pendingCount", moneyRequestService.pendingCount(id)));
+    }
+
+    private ResponseEntity<?> page(String cursor, int size, IntFunction<List<MoneyRequest>> query) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        try {
+            List<MoneyRequest> requests = query.apply(pageSize);
+            Map<String, Object> body = new HashMap<>();
+            body.put("requests", requests);
+            body.put("nextCursor", MoneyRequestService.nextCursor(requests, pageSize));
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor"));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to fetch user requests"));
+        }
+    }
+
     @PutMapping("/{id}/approve")
     public ResponseEntity<?> approveRequest(@PathVariable Long id, @RequestBody ApproveRequestDto approveDto) {
         try {
             Optional<MoneyRequest> requestOptional = moneyRequestRepository.findById(id);
-            if (requestOptional.isPresent()) {
-                MoneyRequest request = requestOptional.get();
-                if ("pending".equals(request.getStatus())) {
-
-                    // --- New Transaction Logic ---
-                    // 1. Get requester's email to send the money to
-                    Optional<User> requesterOptional = userRepository.findById(request.getRequesterId());
-                    if (!requesterOptional.isPresent()) {
-                        return ResponseEntity.status(500).body(Map.of("error", "Requester not found"));
-                    }
-                    String requesterEmail = requesterOptional.get().getEmail();
-
-                    // 2. Create and send the transaction request
-                    TransactionRequest transaction = new TransactionRequest();
-                    transaction.setSenderId(request.getRecipientId()); // The person who approves is the sender
-                    transaction.setRecipientEmail(requesterEmail);           // The person who requested is the recipient
-                    transaction.setAmount(request.getAmount());
-                    transaction.setTransactionPassword(approveDto.transactionPassword);
-                    transaction.setDescription("Payment for money request: " + request.getMessage());
-
-
-                    try {
-                        restTemplate.postForObject("http://TRANSACTION-SERVICE/api/transactions", transaction, Map.class);
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        return ResponseEntity.status(500).body(Map.of("error", "Transaction failed: " + e.getMessage()));
-                    }
-
-                    // 3. Update request status
-                    request.setStatus("approved");
-                    moneyRequestRepository.save(request);
-
-                    // 4. Notify requester
-                    String requesterMessage = String.format("Your money request for %.2f was approved.", request.getAmount());
-                    kafkaProducerService.sendNotificationEvent(new NotificationRequest(request.getRequesterId(), requesterMessage, "Money Request Approved"));
-
-                    return ResponseEntity.ok(Map.of("message", "Money request approved and transaction completed."));
-                } else {
-                    return ResponseEntity.badRequest().body(Map.of("error", "Request is not in pending status"));
-                }
-            } else {
+            if (requestOptional.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
+            MoneyRequest request = requestOptional.get();
+            if (MoneyRequest.APPROVED.equals(request.getStatus())) {
+                return ResponseEntity.ok(Map.of("message", "Money request already approved.", "status", MoneyRequest.APPROVED));
+            }
+            if (!MoneyRequest.PENDING.equals(request.getStatus()) && !MoneyRequest.APPROVING.equals(request.getStatus())) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Request is not in pending status"));
+            }
+
+            // 1. The approver pays, so check their transaction password here instead of inside the payment
+            Optional<User> payerOptional = userRepository.findById(request.getRecipientId());
+            if (payerOptional.isEmpty() || payerOptional.get().getTransactionPassword() == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(Map.of("error", "Transaction password not set"));
+            }
+            if (!passwordHashingService.matchesForPayment(approveDto.transactionPassword, payerOptional.get().getTransactionPassword())) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid transaction password"));
+            }
+
+            // 2. pending -> approving exactly once; a retry while approving re-sends the same command
+            if (MoneyRequest.PENDING.equals(request.getStatus())
+                    && !moneyRequestService.beginApproval(request, LocalDateTime.now(ZoneId.of("Asia/Kolkata")))) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Request changed while approving, please refresh"));
+            }
+            request = moneyRequestRepository.findById(id).orElseThrow();
+            if (!MoneyRequest.APPROVING.equals(request.getStatus())) {
+                return ResponseEntity.ok(Map.of("message", "Money request is " + request.getStatus() + ".", "status", request.getStatus()));
+            }
+
+            // 3. Hand the payment to TRANSACTION-SERVICE; the outcome event settles the request
+            if (!moneyRequestApprovalService.sendPaymentCommand(request)) {
+                return ResponseEntity.status(500).body(Map.of("error", "Requester not found"));
+            }
+            return ResponseEntity.accepted().body(Map.of("message", "Approval in progress.", "status", MoneyRequest.APPROVING));
+        } catch (HashingCapacityExceededException e) {
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body(Map.of("error", "Failed to approve request"));
@@ -134,9 +281,7 @@ public class MoneyRequestController {
             Optional<MoneyRequest> requestOptional = moneyRequestRepository.findById(id);
             if (requestOptional.isPresent()) {
                 MoneyRequest request = requestOptional.get();
-                if ("pending".equals(request.getStatus())) {
-                    request.setStatus("rejected");
-                    moneyRequestRepository.save(request);
+                if (moneyRequestService.transition(request, MoneyRequest.PENDING, MoneyRequest.REJECTED)) {
 
                     // Notify requester
                     String requesterMessage = String.format("Your money request for %.2f was rejected.", request.getAmount());
@@ -161,8 +306,7 @@ public class MoneyRequestController {
             Optional<MoneyRequest> requestOptional = moneyRequestRepository.findById(id);
             if (requestOptional.isPresent()) {
                 MoneyRequest request = requestOptional.get();
-                if ("pending".equals(request.getStatus())) {
-                    moneyRequestRepository.delete(request);
+                if (moneyRequestService.cancel(request)) {
 
                     // Notify recipient
                     String recipientMessage = String.format("A money request for %.2f was canceled.", request.getAmount());
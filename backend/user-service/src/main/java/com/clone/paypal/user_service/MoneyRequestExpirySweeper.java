@@ -0,0 +1,93 @@
+package com.clone.paypal.user_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expires pending money requests past their expiresAt in chunks, then sends one
+ * notification per affected user per chunk rather than one per request.
+ */
+@Component
+public class MoneyRequestExpirySweeper {
+    private static final Logger logger = LoggerFactory.getLogger(MoneyRequestExpirySweeper.class);
+
+    @Autowired
+    private MoneyRequestService moneyRequestService;
+
+    @Autowired
+    private MoneyRequestRepository moneyRequestRepository;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Value("${money-requests.expiry.default-hours:168}")
+    private long defaultExpiryHours;
+
+    @Value("${money-requests.expiry.chunk-size:500}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLegacyRequests() {
+        int rows = moneyRequestRepository.backfillExpiry(defaultExpiryHours);
+        if (rows > 0) {
+            logger.info("Set expiry on {} money requests created before expiry existed", rows);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${money-requests.expiry.sweep-interval-ms:60000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Kolkata"));
+        int total = 0;
+        List<MoneyRequest> expired;
+        do {
+            expired = moneyRequestService.expireDue(now, chunkSize);
+            if (!expired.isEmpty()) {
+                kafkaProducerService.sendNotificationEvents(notificationsFor(expired));
+                total += expired.size();
+            }
+        } while (expired.size() == chunkSize);
+
+        if (total > 0) {
+            logger.info("Expired {} money requests", total);
+        }
+    }
+
+    private List<NotificationRequest> notificationsFor(List<MoneyRequest> expired) {
+        Map<Long, List<MoneyRequest>> byRequester = new LinkedHashMap<>();
+        Map<Long, List<MoneyRequest>> byRecipient = new LinkedHashMap<>();
+        for (MoneyRequest request : expired) {
+            byRequester.computeIfAbsent(request.getRequesterId(), id -> new ArrayList<>()).add(request);
+            byRecipient.computeIfAbsent(request.getRecipientId(), id -> new ArrayList<>()).add(request);
+        }
+
+        List<NotificationRequest> notifications = new ArrayList<>();
+        byRequester.forEach((userId, requests) -> notifications.add(new NotificationRequest(userId,
+                describe(requests, "Your money request for %.2f expired.", "%d of your money requests expired."),
+                "Money Request Expired")));
+        byRecipient.forEach((userId, requests) -> notifications.add(new NotificationRequest(userId,
+                describe(requests, "A money request for %.2f sent to you expired.", "%d money requests sent to you expired."),
+                "Money Request Expired")));
+        return notifications;
+    }
+
+    private static String describe(List<MoneyRequest> requests, String single, String multiple) {
+        if (requests.size() == 1) {
+            BigDecimal amount = requests.get(0).getAmount();
+            return String.format(single, amount);
+        }
+        return String.format(multiple, requests.size());
+    }
+}
@@ -0,0 +1,90 @@
+package com.clone.paypal.user_service;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Parent record of a split bill; each recipient's share is a MoneyRequest pointing back via groupId.
+ */
+@Entity
+@Table(name = "money_request_groups", indexes = @Index(name = "idx_money_request_groups_requester", columnList = "requesterId, createdAt"))
+public class MoneyRequestGroup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long requesterId;
+
+    @Column(nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column
+    private String message;
+
+    @Column(nullable = false)
+    private int memberCount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public MoneyRequestGroup() {
+    }
+
+    public MoneyRequestGroup(Long requesterId, BigDecimal totalAmount, String message, int memberCount, LocalDateTime createdAt) {
+        this.requesterId = requesterId;
+        this.totalAmount = totalAmount;
+        this.message = message;
+        this.memberCount = memberCount;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRequesterId() {
+        return requesterId;
+    }
+
+    public void setRequesterId(Long requesterId) {
+        this.requesterId = requesterId;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public int getMemberCount() {
+        return memberCount;
+    }
+
+    public void setMemberCount(int memberCount) {
+        this.memberCount = memberCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,6 @@
+package com.clone.paypal.user_service;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface MoneyRequestGroupRepository extends JpaRepository<MoneyRequestGroup, Long> {
+}
@@ -0,0 +1,62 @@
+package com.clone.paypal.user_service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates split-bill groups. The shares and their counter increments are written with
+ * JDBC batches (rewritten into multi-row statements by the MySQL driver), so a group of
+ * ten costs about as many round trips as a single request.
+ */
+@Service
+public class MoneyRequestGroupService {
+    private static final String INSERT_SHARE = "insert into money_requests " +
+            "(requester_id, recipient_id, amount, message, status, `timestamp`, expires_at, group_id, approval_attempt, approval_republishes) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, 0, 0)";
+    private static final String INCREMENT_COUNTER = "insert into pending_request_counters (user_id, pending_count) values (?, 1) " +
+            "on duplicate key update pending_count = pending_count + 1";
+
+    @Autowired
+    private MoneyRequestGroupRepository moneyRequestGroupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public MoneyRequestGroup create(Long requesterId, List<Long> recipientIds, List<BigDecimal> shares,
+                                    BigDecimal totalAmount, String message, LocalDateTime now, LocalDateTime expiresAt) {
+        MoneyRequestGroup group = moneyRequestGroupRepository.save(
+                new MoneyRequestGroup(requesterId, totalAmount, message, recipientIds.size(), now));
+
+        List<Object[]> rows = new ArrayList<>(recipientIds.size());
+        List<Object[]> counters = new ArrayList<>(recipientIds.size());
+        for (int i = 0; i < recipientIds.size(); i++) {
+            rows.add(new Object[]{requesterId, recipientIds.get(i), shares.get(i), message,
+                    MoneyRequest.PENDING, now, expiresAt, group.getId()});
+            counters.add(new Object[]{recipientIds.get(i)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SHARE, rows);
+        jdbcTemplate.batchUpdate(INCREMENT_COUNTER, counters);
+        return group;
+    }
+
+    /** Splits total into parts rounded down to paise, handing leftover paise to the first shares. */
+    public static List<BigDecimal> split(BigDecimal total, int parts) {
+        BigDecimal base = total.divide(BigDecimal.valueOf(parts), 2, RoundingMode.DOWN);
+        BigDecimal cent = new BigDecimal("0.01");
+        int leftover = total.subtract(base.multiply(BigDecimal.valueOf(parts))).divide(cent, 0, RoundingMode.DOWN).intValue();
+
+        List<BigDecimal> shares = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++) {
+            shares.add(i < leftover ? base.add(cent) : base);
+        }
+        return shares;
+    }
+}
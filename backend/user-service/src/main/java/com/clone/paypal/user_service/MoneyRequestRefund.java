@@ -0,0 +1,135 @@
+package com.clone.paypal.user_service;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Refund of a money-request payment that completed after its request stopped waiting for it
+ * (cancelled, expired or paid under a newer attempt). Failed refunds stay here for reconciliation.
+ */
+@Entity
+@Table(name = "money_request_refunds", indexes = @Index(name = "idx_money_request_refunds_status", columnList = "status, lastPublishedAt"))
+public class MoneyRequestRefund {
+    public static final String PENDING = "pending";
+    public static final String COMPLETED = "completed";
+    public static final String FAILED = "failed";
+    public static final String REFERENCE_PREFIX = "money-request-refund:";
+
+    @Id
+    private String paymentReference; // The late payment being given back
+
+    @Column(nullable = false)
+    private Long moneyRequestId;
+
+    @Column(nullable = false)
+    private Long payerId;
+
+    @Column(nullable = false)
+    private Long requesterId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private String status; // 'pending', 'completed', 'failed'
+
+    @Column
+    private String failureReason;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime lastPublishedAt;
+
+    public MoneyRequestRefund() {
+    }
+
+    public MoneyRequestRefund(String paymentReference, Long moneyRequestId, Long payerId, Long requesterId, BigDecimal amount, LocalDateTime createdAt) {
+        this.paymentReference = paymentReference;
+        this.moneyRequestId = moneyRequestId;
+        this.payerId = payerId;
+        this.requesterId = requesterId;
+        this.amount = amount;
+        this.status = PENDING;
+        this.createdAt = createdAt;
+        this.lastPublishedAt = createdAt;
+    }
+
+    public String refundReference() {
+        return REFERENCE_PREFIX + paymentReference;
+    }
+
+    public String getPaymentReference() {
+        return paymentReference;
+    }
+
+    public void setPaymentReference(String paymentReference) {
+        this.paymentReference = paymentReference;
+    }
+
+    public Long getMoneyRequestId() {
+        return moneyRequestId;
+    }
+
+    public void setMoneyRequestId(Long moneyRequestId) {
+        this.moneyRequestId = moneyRequestId;
+    }
+
+    public Long getPayerId() {
+        return payerId;
+    }
+
+    public void setPayerId(Long payerId) {
+        this.payerId = payerId;
+    }
+
+    public Long getRequesterId() {
+        return requesterId;
+    }
+
+    public void setRequesterId(Long requesterId) {
+        this.requesterId = requesterId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getLastPublishedAt() {
+        return lastPublishedAt;
+    }
+
+    public void setLastPublishedAt(LocalDateTime lastPublishedAt) {
+        this.lastPublishedAt = lastPublishedAt;
+    }
+}
@@ -0,0 +1,26 @@
+package com.clone.paypal.user_service;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MoneyRequestRefundRepository extends JpaRepository<MoneyRequestRefund, String> {
+    List<MoneyRequestRefund> findTop100ByStatusAndLastPublishedAtBefore(String status, LocalDateTime cutoff);
+
+    // Only one instance re-sends a stalled refund per interval
+    @Transactional
+    @Modifying
+    @Query("update MoneyRequestRefund r set r.lastPublishedAt = :now " +
+            "where r.paymentReference = :reference and r.status = 'pending' and r.lastPublishedAt < :cutoff")
+    int touch(@Param("reference") String reference, @Param("cutoff") LocalDateTime cutoff, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update MoneyRequestRefund r set r.status = :to, r.failureReason = :reason " +
+            "where r.paymentReference = :reference and r.status = 'pending'")
+    int finish(@Param("reference") String reference, @Param("to") String to, @Param("reason") String reason);
+}
@@ -1,10 +1,95 @@
 package com.clone.paypal.user_service;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface MoneyRequestRepository extends JpaRepository<MoneyRequest, Long> {
     List<MoneyRequest> findByRequesterIdOrRecipientIdOrderByTimestampDesc(Long requesterId, Long recipientId);
     List<MoneyRequest> findByRecipientIdAndStatusOrderByTimestampDesc(Long recipientId, String status);
     List<MoneyRequest> findByRequesterIdAndStatusOrderByTimestampDesc(Long requesterId, String status);
+
+    // Keyset pages ordered by (timestamp, id) descending; the cursor is the last row of the previous page
+    @Query("select r from MoneyRequest r where r.recipientId = :userId and r.status = :status " +
+            "and (r.timestamp < :ts or (r.timestamp = :ts and r.id < :id)) order by r.timestamp desc, r.id desc")
+    List<MoneyRequest> findInboxPage(@Param("userId") Long userId, @Param("status") String status,
+                                     @Param("ts") LocalDateTime ts, @Param("id") Long id, Pageable pageable);
+
+    @Query("select r from MoneyRequest r where r.recipientId = :userId " +
+            "and (r.timestamp < :ts or (r.timestamp = :ts and r.id < :id)) order by r.timestamp desc, r.id desc")
+    List<MoneyRequest> findInboxPage(@Param("userId") Long userId,
+                                     @Param("ts") LocalDateTime ts, @Param("id") Long id, Pageable pageable);
+
+    @Query("select r from MoneyRequest r where r.requesterId = :userId and r.status = :status " +
+            "and (r.timestamp < :ts or (r.timestamp = :ts and r.id < :id)) order by r.timestamp desc, r.id desc")
+    List<MoneyRequest> findOutboxPage(@Param("userId") Long userId, @Param("status") String status,
+                                      @Param("ts") LocalDateTime ts, @Param("id") Long id, Pageable pageable);
+
+    @Query("select r from MoneyRequest r where r.requesterId = :userId " +
+            "and (r.timestamp < :ts or (r.timestamp = :ts and r.id < :id)) order by r.timestamp desc, r.id desc")
+    List<MoneyRequest> findOutboxPage(@Param("userId") Long userId,
+                                      @Param("ts") LocalDateTime ts, @Param("id") Long id, Pageable pageable);
+
+    @Modifying
+    @Query("update MoneyRequest r set r.status = :to where r.id = :id and r.status = :from")
+    int transition(@Param("id") Long id, @Param("from") String from, @Param("to") String to);
+
+    @Modifying
+    @Query("update MoneyRequest r set r.status = 'approving', r.approvalAttempt = r.approvalAttempt + 1, r.approvalStartedAt = :now, " +
+            "r.approvalRepublishes = 0 " +
+            "where r.id = :id and r.status = 'pending'")
+    int beginApproval(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update MoneyRequest r set r.status = :to where r.id = :id and r.status = 'approving' and r.approvalAttempt = :attempt")
+    int finishApproval(@Param("id") Long id, @Param("attempt") int attempt, @Param("to") String to);
+
+    @Transactional
+    @Modifying
+    @Query("update MoneyRequest r set r.approvalStartedAt = :now, r.approvalRepublishes = r.approvalRepublishes + 1 " +
+            "where r.id = :id and r.status = 'approving' and r.approvalAttempt = :attempt")
+    int touchApproval(@Param("id") Long id, @Param("attempt") int attempt, @Param("now") LocalDateTime now);
+
+    List<MoneyRequest> findTop100ByStatusAndApprovalStartedAtBefore(String status, LocalDateTime cutoff);
+
+    @Modifying
+    @Query("delete from MoneyRequest r where r.id = :id and r.status = 'pending'")
+    int deleteIfPending(@Param("id") Long id);
+
+    List<MoneyRequest> findByGroupIdOrderByIdAsc(Long groupId);
+
+    @Query("select r.status, count(r), sum(r.amount) from MoneyRequest r where r.groupId = :groupId group by r.status")
+    List<Object[]> summarizeGroup(@Param("groupId") Long groupId);
+
+    // SKIP LOCKED (-2) lets several instances sweep side by side without waiting on each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select r from MoneyRequest r where r.status = 'pending' and r.expiresAt <= :now order by r.expiresAt")
+    List<MoneyRequest> findDueForExpiry(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update MoneyRequest r set r.status = 'expired' where r.id in :ids")
+    int expire(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "update money_requests set expires_at = date_add(`timestamp`, interval :hours hour) where expires_at is null", nativeQuery = true)
+    int backfillExpiry(@Param("hours") long hours);
+
+    @Query("select r.recipientId, count(r) from MoneyRequest r where r.requesterId = :userId and r.status = 'pending' group by r.recipientId")
+    List<Object[]> countPendingByRecipientForRequester(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from MoneyRequest r where r.requesterId = :userId or r.recipientId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 }
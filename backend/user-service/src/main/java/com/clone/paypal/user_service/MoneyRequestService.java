@@ -0,0 +1,169 @@
+package com.clone.paypal.user_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Status changes on money requests together with the per-recipient pending counter.
+ * Every transition is a conditional update, so the counter only moves when the row did.
+ */
+@Service
+public class MoneyRequestService {
+    private static final Logger logger = LoggerFactory.getLogger(MoneyRequestService.class);
+    private static final LocalDateTime FIRST_PAGE_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @Autowired
+    private MoneyRequestRepository moneyRequestRepository;
+
+    @Autowired
+    private PendingRequestCounterRepository pendingRequestCounterRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillCounters() {
+        if (pendingRequestCounterRepository.count() == 0) {
+            int rows = pendingRequestCounterRepository.backfill();
+            logger.info("Backfilled {} pending request counters", rows);
+        }
+    }
+
+    @Transactional
+    public MoneyRequest create(MoneyRequest request) {
+        MoneyRequest saved = moneyRequestRepository.save(request);
+        pendingRequestCounterRepository.adjust(saved.getRecipientId(), 1);
+        return saved;
+    }
+
+    @Transactional
+    public boolean transition(MoneyRequest request, String from, String to) {
+        if (moneyRequestRepository.transition(request.getId(), from, to) == 0) {
+            return false;
+        }
+        if (MoneyRequest.PENDING.equals(from)) {
+            pendingRequestCounterRepository.adjust(request.getRecipientId(), -1);
+        } else if (MoneyRequest.PENDING.equals(to)) {
+            pendingRequestCounterRepository.adjust(request.getRecipientId(), 1);
+        }
+        request.setStatus(to);
+        return true;
+    }
+
+    /** pending -> approving; the request leaves the recipient's pending badge while the payment runs. */
+    @Transactional
+    public boolean beginApproval(MoneyRequest request, LocalDateTime now) {
+        if (moneyRequestRepository.beginApproval(request.getId(), now) == 0) {
+            return false;
+        }
+        pendingRequestCounterRepository.adjust(request.getRecipientId(), -1);
+        return true;
+    }
+
+    /** approving -> approved or back to pending, only for the attempt the outcome belongs to. */
+    @Transactional
+    public boolean finishApproval(MoneyRequest request, int attempt, boolean paid) {
+        String to = paid ? MoneyRequest.APPROVED : MoneyRequest.PENDING;
+        if (moneyRequestRepository.finishApproval(request.getId(), attempt, to) == 0) {
+            return false;
+        }
+        if (!paid) {
+            pendingRequestCounterRepository.adjust(request.getRecipientId(), 1);
+        }
+        request.setStatus(to);
+        return true;
+    }
+
+    @Transactional
+    public boolean cancel(MoneyRequest request) {
+        if (moneyRequestRepository.deleteIfPending(request.getId()) == 0) {
+            return false;
+        }
+        pendingRequestCounterRepository.adjust(request.getRecipientId(), -1);
+        return true;
+    }
+
+    /** Moves one chunk of overdue pending requests to expired and returns them. */
+    @Transactional
+    public List<MoneyRequest> expireDue(LocalDateTime now, int chunkSize) {
+        List<MoneyRequest> due = moneyRequestRepository.findDueForExpiry(now, PageRequest.of(0, chunkSize));
+        if (due.isEmpty()) {
+            return due;
+        }
+
+        moneyRequestRepository.expire(due.stream().map(MoneyRequest::getId).toList());
+        Map<Long, Long> perRecipient = due.stream()
+                .collect(Collectors.groupingBy(MoneyRequest::getRecipientId, Collectors.counting()));
+        perRecipient.forEach((recipientId, count) -> pendingRequestCounterRepository.adjust(recipientId, -count));
+        due.forEach(request -> request.setStatus(MoneyRequest.EXPIRED));
+        return due;
+    }
+
+    /** Releases the counters of everyone the user had pending requests with; runs inside account deletion. */
+    @Transactional
+    public void releaseCountersOf(Long userId) {
+        for (Object[] row : moneyRequestRepository.countPendingByRecipientForRequester(userId)) {
+            pendingRequestCounterRepository.adjust((Long) row[0], -((Long) row[1]));
+        }
+        pendingRequestCounterRepository.deleteById(userId);
+    }
+
+    public long pendingCount(Long userId) {
+        return pendingRequestCounterRepository.findById(userId)
+                .map(PendingRequestCounter::getPendingCount)
+                .orElse(0L);
+    }
+
+    public List<MoneyRequest> inbox(Long userId, String status, String cursor, int size) {
+        LocalDateTime ts = cursorTimestamp(cursor);
+        Long id = cursorId(cursor);
+        PageRequest page = PageRequest.of(0, size);
+        return status == null
+                ? moneyRequestRepository.findInboxPage(userId, ts, id, page)
+                : moneyRequestRepository.findInboxPage(userId, status, ts, id, page);
+    }
+
+    public List<MoneyRequest> outbox(Long userId, String status, String cursor, int size) {
+        LocalDateTime ts = cursorTimestamp(cursor);
+        Long id = cursorId(cursor);
+        PageRequest page = PageRequest.of(0, size);
+        return status == null
+                ? moneyRequestRepository.findOutboxPage(userId, ts, id, page)
+                : moneyRequestRepository.findOutboxPage(userId, status, ts, id, page);
+    }
+
+    public static String nextCursor(List<MoneyRequest> page, int size) {
+        if (page.size() < size) {
+            return null;
+        }
+        MoneyRequest last = page.get(page.size() - 1);
+        String raw = last.getTimestamp() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LocalDateTime cursorTimestamp(String cursor) {
+        return cursor == null ? FIRST_PAGE_TIMESTAMP : LocalDateTime.parse(decode(cursor)[0]);
+    }
+
+    private static Long cursorId(String cursor) {
+        return cursor == null ? Long.MAX_VALUE : Long.valueOf(decode(cursor)[1]);
+    }
+
+    private static String[] decode(String cursor) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return parts;
+    }
+}
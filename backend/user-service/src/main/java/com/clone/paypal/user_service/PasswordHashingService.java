@@ -0,0 +1,139 @@
+package com.clone.paypal.user_service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt off the Tomcat request threads on bounded, CPU-sized pools.
+ * Login, registration and password changes share the general lane; transaction PIN checks
+ * on the payment path get their own lane so a login burst cannot starve them. When a lane's
+ * queue is full the call is rejected immediately and surfaces as a 503.
+ * The calling request thread waits for its result, so every queued or running hash holds one Tomcat thread;
+ * both lanes together (threads plus queues) must stay at or below half of server.tomcat.threads.max,
+ * which leaves the rest for requests that never hash. A warning is logged at startup if they do not.
+ */
+@Service
+public class PasswordHashingService {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+    private static final String GENERAL_LANE = "general";
+    private static final String PAYMENT_LANE = "payment";
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${password-hashing.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${password-hashing.payment-lane-threads:2}")
+    private int paymentLaneThreads;
+
+    @Value("${password-hashing.payment-lane-queue-capacity:40}")
+    private int paymentLaneQueueCapacity;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int tomcatMaxThreads;
+
+    private ThreadPoolExecutor generalLane;
+    private ThreadPoolExecutor paymentLane;
+
+    @PostConstruct
+    public void init() {
+        int generalThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        int laneCapacity = generalThreads + queueCapacity + paymentLaneThreads + paymentLaneQueueCapacity;
+        if (laneCapacity > tomcatMaxThreads / 2) {
+            logger.warn("Password hashing lanes can hold {} waiting requests, more than half of server.tomcat.threads.max ({}); "
+                    + "lower password-hashing queue capacities", laneCapacity, tomcatMaxThreads);
+        }
+        generalLane = newLane(GENERAL_LANE, generalThreads, queueCapacity);
+        paymentLane = newLane(PAYMENT_LANE, paymentLaneThreads, paymentLaneQueueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        generalLane.shutdown();
+        paymentLane.shutdown();
+    }
+
+    public String encode(String rawPassword) {
+        return run(generalLane, GENERAL_LANE, "encode", () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(generalLane, GENERAL_LANE, "matches", () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public boolean matchesForPayment(String rawPassword, String encodedPassword) {
+        return run(paymentLane, PAYMENT_LANE, "matches", () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> T run(ThreadPoolExecutor lane, String laneName, String operation, Callable<T> task) {
+        Timer timer = Timer.builder("password.hashing.duration")
+                .tag("lane", laneName)
+                .tag("operation", operation)
+                .register(meterRegistry);
+
+        Future<T> future;
+        try {
+            future = lane.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            Counter.builder("password.hashing.rejected").tag("lane", laneName).register(meterRegistry).increment();
+            throw new HashingCapacityExceededException("Server is busy, please retry shortly");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private ThreadPoolExecutor newLane(String laneName, int laneThreads, int laneQueueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor lane = new ThreadPoolExecutor(
+                laneThreads, laneThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(laneQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-" + laneName + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("password.hashing.queue.depth", lane, executor -> executor.getQueue().size())
+                .tag("lane", laneName)
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", lane, ThreadPoolExecutor::getActiveCount)
+                .tag("lane", laneName)
+                .register(meterRegistry);
+        return lane;
+    }
+}
@@ -0,0 +1,24 @@
+package com.clone.paypal.user_service;
+
+import java.math.BigDecimal;
+
+public class PaymentAuthorizationRequest {
+    private String transactionPassword;
+    private BigDecimal maxAmount;
+
+    public String getTransactionPassword() {
+        return transactionPassword;
+    }
+
+    public void setTransactionPassword(String transactionPassword) {
+        this.transactionPassword = transactionPassword;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+}
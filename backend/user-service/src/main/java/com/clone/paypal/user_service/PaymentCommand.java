@@ -0,0 +1,72 @@
+package com.clone.paypal.user_service;
+
+import java.math.BigDecimal;
+
+public class PaymentCommand {
+    private String reference;
+    private Long senderId;
+    private String recipientEmail;
+    private BigDecimal amount;
+    private String description;
+    private String paymentToken;
+
+    public PaymentCommand() {
+    }
+
+    public PaymentCommand(String reference, Long senderId, String recipientEmail, BigDecimal amount, String description, String paymentToken) {
+        this.reference = reference;
+        this.senderId = senderId;
+        this.recipientEmail = recipientEmail;
+        this.amount = amount;
+        this.description = description;
+        this.paymentToken = paymentToken;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public Long getSenderId() {
+        return senderId;
+    }
+
+    public void setSenderId(Long senderId) {
+        this.senderId = senderId;
+    }
+
+    public String getRecipientEmail() {
+        return recipientEmail;
+    }
+
+    public void setRecipientEmail(String recipientEmail) {
+        this.recipientEmail = recipientEmail;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getPaymentToken() {
+        return paymentToken;
+    }
+
+    public void setPaymentToken(String paymentToken) {
+        this.paymentToken = paymentToken;
+    }
+}
@@ -0,0 +1,85 @@
+package com.clone.paypal.user_service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Issues short-lived payment tokens after a successful transaction PIN check.
+ * The token is an HMAC-SHA256 signed payload that TRANSACTION-SERVICE verifies
+ * with the same shared secret, so repeated payments skip the BCrypt round trip.
+ */
+@Service
+public class PaymentTokenService {
+    public static final String SCOPE = "payment";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${payment-token.secret}")
+    private String secret;
+
+    @Value("${payment-token.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${payment-token.max-amount:100000}")
+    private BigDecimal maxAmountCap;
+
+    public Map<String, Object> issue(Long userId, BigDecimal requestedMaxAmount) {
+        BigDecimal maxAmount = requestedMaxAmount == null || requestedMaxAmount.compareTo(maxAmountCap) > 0
+                ? maxAmountCap
+                : requestedMaxAmount;
+        return build(userId, maxAmount);
+    }
+
+    /**
+     * Token for one server-issued payment command. The payer approved this exact amount with their PIN,
+     * so the cap on interactively requested tokens does not apply.
+     */
+    public String issueForCommand(Long userId, BigDecimal amount) {
+        return (String) build(userId, amount).get("paymentToken");
+    }
+
+    private Map<String, Object> build(Long userId, BigDecimal maxAmount) {
+        long expiresAt = Instant.now().plusSeconds(ttlSeconds).getEpochSecond();
+
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", userId);
+        claims.put("scope", SCOPE);
+        claims.put("max", maxAmount.toPlainString());
+        claims.put("exp", expiresAt);
+        claims.put("jti", UUID.randomUUID().toString());
+
+        try {
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            String payload = encoder.encodeToString(objectMapper.writeValueAsBytes(claims));
+            String signature = encoder.encodeToString(sign(payload));
+            return Map.of(
+                    "paymentToken", payload + "." + signature,
+                    "expiresAt", expiresAt,
+                    "maxAmount", maxAmount
+            );
+        } catch (JsonProcessingException | GeneralSecurityException e) {
+            throw new IllegalStateException("Could not issue payment token", e);
+        }
+    }
+
+    private byte[] sign(String payload) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(ALGORITHM);
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+        return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+}
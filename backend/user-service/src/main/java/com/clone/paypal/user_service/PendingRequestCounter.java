@@ -0,0 +1,36 @@
+package com.clone.paypal.user_service;
+
+import jakarta.persistence.*;
+
+/**
+ * Number of pending money requests waiting on a user, maintained alongside every
+ * status change so the inbox badge never has to count rows.
+ */
+@Entity
+@Table(name = "pending_request_counters")
+public class PendingRequestCounter {
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private long pendingCount;
+
+    public PendingRequestCounter() {
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public long getPendingCount() {
+        return pendingCount;
+    }
+
+    public void setPendingCount(long pendingCount) {
+        this.pendingCount = pendingCount;
+    }
+}
@@ -0,0 +1,19 @@
+package com.clone.paypal.user_service;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface PendingRequestCounterRepository extends JpaRepository<PendingRequestCounter, Long> {
+
+    @Modifying
+    @Query(value = "insert into pending_request_counters (user_id, pending_count) values (:userId, greatest(:delta, 0)) " +
+            "on duplicate key update pending_count = greatest(pending_count + :delta, 0)", nativeQuery = true)
+    int adjust(@Param("userId") Long userId, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "insert ignore into pending_request_counters (user_id, pending_count) " +
+            "select recipient_id, count(*) from money_requests where status = 'pending' group by recipient_id", nativeQuery = true)
+    int backfill();
+}
@@ -1,16 +1,33 @@
 package com.clone.paypal.user_service;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.web.client.RestTemplate;
+import java.time.Duration;
 
 @Configuration
 public class RestTemplateConfig {
 
     @Bean
+    @Primary
     @LoadBalanced
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
-}
\ No newline at end of file
+
+    // Read timeout sits just above analytics.downstream-timeout-ms, so an abandoned call frees its fan-out thread soon after
+    @Bean
+    @LoadBalanced
+    public RestTemplate analyticsRestTemplate(RestTemplateBuilder builder,
+                                              @Value("${analytics.connect-timeout-ms:1000}") long connectTimeoutMs,
+                                              @Value("${analytics.read-timeout-ms:2500}") long readTimeoutMs) {
+        return builder
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
+    }
+}
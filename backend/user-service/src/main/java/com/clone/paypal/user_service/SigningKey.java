@@ -0,0 +1,63 @@
+package com.clone.paypal.user_service;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+@Entity
+@Table(name = "signing_keys")
+public class SigningKey {
+
+    @Id
+    private String kid;
+
+    @Column(nullable = false, length = 4096)
+    private String jwk; // Full RSA JWK (including private parts), only ever served as a public key set
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    public SigningKey() {
+    }
+
+    public SigningKey(String kid, String jwk, Instant createdAt, Instant expiresAt) {
+        this.kid = kid;
+        this.jwk = jwk;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getKid() {
+        return kid;
+    }
+
+    public void setKid(String kid) {
+        this.kid = kid;
+    }
+
+    public String getJwk() {
+        return jwk;
+    }
+
+    public void setJwk(String jwk) {
+        this.jwk = jwk;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,18 @@
+package com.clone.paypal.user_service;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.util.List;
+
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+    List<SigningKey> findByExpiresAtAfterOrderByCreatedAtDesc(Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from SigningKey k where k.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,90 @@
+package com.clone.paypal.user_service;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maintains the rotating RSA key ring used to sign access tokens.
+ * Keys live in the database so every USER-SERVICE instance signs with, and publishes,
+ * the same set. A retired key stays published until the last token it signed has expired.
+ */
+@Service
+public class SigningKeyService {
+
+    @Autowired
+    private SigningKeyRepository signingKeyRepository;
+
+    @Value("${jwt.key-rotation-hours:24}")
+    private long rotationHours;
+
+    @Value("${jwt.token-ttl-minutes:60}")
+    private long tokenTtlMinutes;
+
+    private volatile List<RSAKey> activeKeys = List.of();
+
+    public RSAKey currentKey() {
+        List<RSAKey> keys = activeKeys;
+        if (keys.isEmpty()) {
+            rotateIfDue();
+            keys = activeKeys;
+        }
+        return keys.get(0);
+    }
+
+    public Map<String, Object> publicJwkSet() {
+        if (activeKeys.isEmpty()) {
+            rotateIfDue();
+        }
+        return new JWKSet(new ArrayList<JWK>(activeKeys)).toJSONObject(true);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.key-check-interval-ms:60000}")
+    public synchronized void rotateIfDue() {
+        Instant now = Instant.now();
+        signingKeyRepository.deleteExpired(now);
+
+        List<SigningKey> keys = new ArrayList<>(signingKeyRepository.findByExpiresAtAfterOrderByCreatedAtDesc(now));
+        if (keys.isEmpty() || keys.get(0).getCreatedAt().isBefore(now.minus(Duration.ofHours(rotationHours)))) {
+            keys.add(0, signingKeyRepository.save(generate(now)));
+        }
+
+        List<RSAKey> parsed = new ArrayList<>();
+        for (SigningKey key : keys) {
+            try {
+                parsed.add(RSAKey.parse(key.getJwk()));
+            } catch (ParseException e) {
+                e.printStackTrace();
+            }
+        }
+        activeKeys = List.copyOf(parsed);
+    }
+
+    private SigningKey generate(Instant now) {
+        try {
+            RSAKey rsaKey = new RSAKeyGenerator(2048)
+                    .keyID(UUID.randomUUID().toString())
+                    .keyUse(KeyUse.SIGNATURE)
+                    .generate();
+            // Signs for one rotation period, then verifies for one more token lifetime
+            Instant expiresAt = now.plus(Duration.ofHours(rotationHours)).plus(Duration.ofMinutes(tokenTtlMinutes));
+            return new SigningKey(rsaKey.getKeyID(), rsaKey.toJSONString(), now, expiresAt);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not generate signing key", e);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.clone.paypal.user_service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpMethod;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the per-user analytics view from TRANSACTION-SERVICE and WALLET-SERVICE.
+ * Both calls run in parallel with their own timeout; a slow or failing downstream yields a
+ * partial result instead of an error. Complete results are cached until the next transaction
+ * event for the user arrives. The fan-out pool is private to this service rather than a bean, so
+ * Boot keeps its own applicationTaskExecutor for async work.
+ */
+@Service
+public class UserAnalyticsService {
+    private static final Logger logger = LoggerFactory.getLogger(UserAnalyticsService.class);
+    private static final String TRANSACTION_SERVICE_URL = "http://TRANSACTION-SERVICE/api/transactions/user/";
+    private static final String WALLET_SERVICE_URL = "http://WALLET-SERVICE/api/wallets/user/";
+    private static final String COMPLETED = "COMPLETED";
+    private static final int TOP_COUNTERPARTIES = 5;
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> TRANSACTION_LIST = new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<Map<String, Object>> WALLET = new ParameterizedTypeReference<>() {};
+
+    @Autowired
+    @Qualifier("analyticsRestTemplate")
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${analytics.fan-out-threads:16}")
+    private int fanOutThreads;
+
+    @Value("${analytics.downstream-timeout-ms:2000}")
+    private long downstreamTimeoutMs;
+
+    @Value("${analytics.cache-ttl-minutes:5}")
+    private long cacheTtlMinutes;
+
+    private ThreadPoolTaskExecutor analyticsExecutor;
+    private Cache<Long, Map<String, Object>> analyticsCache;
+    private Cache<Long, Long> invalidatedAt;
+
+    @PostConstruct
+    public void init() {
+        // Runs the downstream calls of the fan-out; callers bound each call with their own timeout
+        analyticsExecutor = new ThreadPoolTaskExecutor();
+        analyticsExecutor.setCorePoolSize(fanOutThreads);
+        analyticsExecutor.setMaxPoolSize(fanOutThreads);
+        analyticsExecutor.setQueueCapacity(fanOutThreads * 32);
+        analyticsExecutor.setThreadNamePrefix("analytics-");
+        analyticsExecutor.initialize();
+
+        analyticsCache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .build();
+        // Remembers recent invalidations so a fan-out that raced with one is not cached
+        invalidatedAt = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(downstreamTimeoutMs * 2))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        analyticsExecutor.shutdown();
+    }
+
+    public Map<String, Object> getAnalytics(Long userId) {
+        Map<String, Object> cached = analyticsCache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long startedAt = System.nanoTime();
+        CompletableFuture<List<Map<String, Object>>> transactionsFuture = fetch("transactions",
+                () -> restTemplate.exchange(TRANSACTION_SERVICE_URL + userId, HttpMethod.GET, null, TRANSACTION_LIST).getBody());
+        CompletableFuture<Map<String, Object>> walletFuture = fetch("wallet",
+                () -> restTemplate.exchange(WALLET_SERVICE_URL + userId, HttpMethod.GET, null, WALLET).getBody());
+
+        List<Map<String, Object>> transactions = transactionsFuture.join();
+        Map<String, Object> wallet = walletFuture.join();
+
+        List<String> unavailable = new ArrayList<>();
+        if (transactions == null) {
+            unavailable.add("transactions");
+        }
+        if (wallet == null) {
+            unavailable.add("wallet");
+        }
+
+        Map<String, Object> analytics = new LinkedHashMap<>();
+        analytics.put("wallet", wallet != null ? wallet : Map.of());
+        analytics.put("summary", transactions != null ? summarize(userId, transactions) : Map.of());
+        analytics.put("topCounterparties", transactions != null ? topCounterparties(userId, transactions) : List.of());
+        analytics.put("partial", !unavailable.isEmpty());
+        analytics.put("unavailable", unavailable);
+
+        Long lastInvalidation = invalidatedAt.getIfPresent(userId);
+        if (unavailable.isEmpty() && (lastInvalidation == null || lastInvalidation < startedAt)) {
+            analyticsCache.put(userId, analytics);
+        }
+        return analytics;
+    }
+
+    @KafkaListener(topics = "transaction_events", groupId = "user-analytics-cache-${analytics.instance-id}",
+            properties = {"auto.offset.reset=latest",
+                    "spring.json.value.default.type=com.clone.paypal.user_service.TransactionEvent"})
+    public void onTransactionEvent(TransactionEvent event) {
+        invalidate(event.getSenderId());
+        invalidate(event.getRecipientId());
+    }
+
+    private void invalidate(Long userId) {
+        if (userId != null) {
+            invalidatedAt.put(userId, System.nanoTime());
+            analyticsCache.invalidate(userId);
+        }
+    }
+
+    private <T> CompletableFuture<T> fetch(String source, Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, analyticsExecutor)
+                    .completeOnTimeout(null, downstreamTimeoutMs, TimeUnit.MILLISECONDS)
+                    .exceptionally(e -> {
+                        logger.warn("Analytics source '{}' failed: {}", source, e.getMessage());
+                        return null;
+                    });
+        } catch (TaskRejectedException e) {
+            logger.warn("Analytics source '{}' skipped, executor saturated", source);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private Map<String, Object> summarize(Long userId, List<Map<String, Object>> transactions) {
+        BigDecimal totalSpent = BigDecimal.ZERO;
+        BigDecimal totalReceived = BigDecimal.ZERO;
+        int sentCount = 0;
+        int receivedCount = 0;
+        int failedCount = 0;
+
+        for (Map<String, Object> transaction : transactions) {
+            if (!COMPLETED.equals(transaction.get("status"))) {
+                failedCount++;
+                continue;
+            }
+            BigDecimal amount = amountOf(transaction);
+            if (userId.equals(idOf(transaction.get("senderId")))) {
+                totalSpent = totalSpent.add(amount);
+                sentCount++;
+            }
+            if (userId.equals(idOf(transaction.get("recipientId")))) {
+                totalReceived = totalReceived.add(amount);
+                receivedCount++;
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("totalTransactions", transactions.size() - failedCount);
+        summary.put("totalSpent", totalSpent);
+        summary.put("totalReceived", totalReceived);
+        summary.put("netFlow", totalReceived.subtract(totalSpent));
+        summary.put("sentCount", sentCount);
+        summary.put("receivedCount", receivedCount);
+        summary.put("failedCount", failedCount);
+        return summary;
+    }
+
+    private List<Map<String, Object>> topCounterparties(Long userId, List<Map<String, Object>> transactions) {
+        Map<Long, BigDecimal> volumeByCounterparty = new HashMap<>();
+        Map<Long, Integer> countByCounterparty = new HashMap<>();
+        for (Map<String, Object> transaction : transactions) {
+            if (!COMPLETED.equals(transaction.get("status"))) {
+                continue;
+            }
+            Long senderId = idOf(transaction.get("senderId"));
+            Long counterpartyId = userId.equals(senderId) ? idOf(transaction.get("recipientId")) : senderId;
+            if (counterpartyId == null || counterpartyId.equals(userId)) {
+                continue;
+            }
+            volumeByCounterparty.merge(counterpartyId, amountOf(transaction), BigDecimal::add);
+            countByCounterparty.merge(counterpartyId, 1, Integer::sum);
+        }
+
+        List<Long> topIds = volumeByCounterparty.entrySet().stream()
+                .sorted(Map.Entry.<Long, BigDecimal>comparingByValue(Comparator.reverseOrder()))
+                .limit(TOP_COUNTERPARTIES)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (topIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, UserProfileView> profiles = userRepository.findByIdIn(topIds).stream()
+                .collect(Collectors.toMap(UserProfileView::getId, Function.identity()));
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Long counterpartyId : topIds) {
+            UserProfileView profile = profiles.get(counterpartyId);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("userId", counterpartyId);
+            entry.put("name", profile != null ? profile.getFirstName() + " " + profile.getLastName() : "User " + counterpartyId);
+            entry.put("transactionCount", countByCounterparty.get(counterpartyId));
+            entry.put("totalAmount", volumeByCounterparty.get(counterpartyId));
+            result.add(entry);
+        }
+        return result;
+    }
+
+    private static Long idOf(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    private static BigDecimal amountOf(Map<String, Object> transaction) {
+        Object amount = transaction.get("amount");
+        return amount == null ? BigDecimal.ZERO : new BigDecimal(amount.toString());
+    }
+}
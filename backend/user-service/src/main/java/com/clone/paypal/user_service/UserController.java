@@ -3,34 +3,60 @@ package com.clone.paypal.user_service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
+    private static final int BATCH_LOOKUP_LIMIT = 500;
+    private static final int IN_CLAUSE_CHUNK_SIZE = 100;
 
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private PaymentTokenService paymentTokenService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private SigningKeyService signingKeyService;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Autowired
+    private UserAnalyticsService userAnalyticsService;
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
+    @Autowired
+    private AccountDeletionRepository accountDeletionRepository;
 
     @PostMapping("/register")
     public ResponseEntity<User> registerUser(@RequestBody User user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHashingService.encode(user.getPassword()));
         User savedUser = userRepository.save(user);
+        userSearchIndex.index(savedUser);
 
-        restTemplate.postForObject("http://WALLET-SERVICE/api/wallets",
-                new WalletCreationRequest(savedUser.getId()),
-                Map.class);
+        // wallet-service provisions the wallet from this event
+        kafkaProducerService.sendUserEvent(new UserEvent(UserEvent.REGISTERED, savedUser));
 
         return ResponseEntity.ok(savedUser);
     }
@@ -46,9 +72,9 @@ public class UserController {
 
         if (userOptional.isPresent()) {
             User user = userOptional.get();
-            if (passwordEncoder.matches(loginRequest.password, user.getPassword())) {
+            if (passwordHashingService.matches(loginRequest.password, user.getPassword())) {
                 boolean transactionPasswordSet = user.getTransactionPassword() != null && !user.getTransactionPassword().isEmpty();
-                return ResponseEntity.ok(new LoginResponse("dummy-jwt-token-for-" + user.getId(), user.getId(), user.getFullName(), transactionPasswordSet));
+                return ResponseEntity.ok(new LoginResponse(jwtService.issueAccessToken(user), user.getId(), user.getFullName(), transactionPasswordSet));
             }
         }
 
@@ -67,46 +93,59 @@ public class UserController {
         return userOptional.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> getUsersBatch(@RequestBody BatchUserLookupRequest request) {
+        Set<Long> ids = request.getIds() == null ? Set.of() : new LinkedHashSet<>(request.getIds());
+        Set<String> emails = request.getEmails() == null ? Set.of() : new LinkedHashSet<>(request.getEmails());
+        if (ids.size() + emails.size() > BATCH_LOOKUP_LIMIT) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + BATCH_LOOKUP_LIMIT + " ids and emails per batch"));
+        }
+
+        List<UserProfileView> views = new ArrayList<>();
+        List<Long> idList = new ArrayList<>(ids);
+        for (int i = 0; i < idList.size(); i += IN_CLAUSE_CHUNK_SIZE) {
+            views.addAll(userRepository.findByIdIn(idList.subList(i, Math.min(i + IN_CLAUSE_CHUNK_SIZE, idList.size()))));
+        }
+        List<String> emailList = new ArrayList<>(emails);
+        for (int i = 0; i < emailList.size(); i += IN_CLAUSE_CHUNK_SIZE) {
+            views.addAll(userRepository.findByEmailIn(emailList.subList(i, Math.min(i + IN_CLAUSE_CHUNK_SIZE, emailList.size()))));
+        }
+
+        // A user asked for by both id and email is returned once
+        Map<Long, UserSummary> summaries = new LinkedHashMap<>();
+        views.forEach(view -> summaries.putIfAbsent(view.getId(), UserSummary.from(view)));
+        return ResponseEntity.ok(new ArrayList<>(summaries.values()));
+    }
+
+    @GetMapping("/jwks")
+    public Map<String, Object> getJwks() {
+        return signingKeyService.publicJwkSet();
+    }
+
+    // X-User-Id is set by the API gateway after it has validated the bearer token
     @GetMapping("/me")
-    public ResponseEntity<User> getAuthenticatedUser(@RequestHeader("Authorization") String authorizationHeader) {
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer dummy-jwt-token-for-")) {
-            try {
-                Long userId = Long.parseLong(authorizationHeader.substring("Bearer dummy-jwt-token-for-".length()));
-                Optional<User> userOptional = userRepository.findById(userId);
-                return userOptional.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
-            } catch (NumberFormatException e) {
-                return ResponseEntity.badRequest().build();
-            }
+    public ResponseEntity<User> getAuthenticatedUser(@RequestHeader(value = "X-User-Id", required = false) Long authenticatedUserId) {
+        if (authenticatedUserId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        Optional<User> userOptional = userRepository.findById(authenticatedUserId);
+        return userOptional.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsers(@RequestParam String q) {
-        List<User> users = userRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(q, q, q);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserSummary>> searchUsers(@RequestParam String q,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "20") int size) {
+        UserSearchIndex.SearchResult result = userSearchIndex.search(q, Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(result.getTotal()))
+                .body(result.getResults());
     }
 
     @GetMapping("/analytics/{id}")
     public ResponseEntity<?> getUserAnalytics(@PathVariable Long id) {
         try {
-            String transactionServiceUrl = "http://TRANSACTION-SERVICE/api/transactions/user/" + id;
-            ResponseEntity<Map> transactionResponse = restTemplate.getForEntity(transactionServiceUrl, Map.class);
-
-            String walletServiceUrl = "http://WALLET-SERVICE/api/wallets/user/" + id;
-            ResponseEntity<Map> walletResponse = restTemplate.getForEntity(walletServiceUrl, Map.class);
-
-            Map<String, Object> analytics = Map.of(
-                    "transactions", transactionResponse.getBody() != null ? transactionResponse.getBody() : Map.of(),
-                    "wallet", walletResponse.getBody() != null ? walletResponse.getBody() : Map.of(),
-                    "summary", Map.of(
-                            "totalTransactions", 0,
-                            "totalSpent", 0,
-                            "totalReceived", 0
-                    )
-            );
-
-            return ResponseEntity.ok(analytics);
+            return ResponseEntity.ok(userAnalyticsService.getAnalytics(id));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body(Map.of("error", "Failed to fetch user analytics"));
@@ -124,8 +163,8 @@ public class UserController {
 
         if (userOptional.isPresent()) {
             User user = userOptional.get();
-            if (passwordEncoder.matches(passwordChangeRequest.currentPassword, user.getPassword())) {
-                user.setPassword(passwordEncoder.encode(passwordChangeRequest.newPassword));
+            if (passwordHashingService.matches(passwordChangeRequest.currentPassword, user.getPassword())) {
+                user.setPassword(passwordHashingService.encode(passwordChangeRequest.newPassword));
                 userRepository.save(user);
                 return ResponseEntity.ok(Map.of("message", "Password changed successfully"));
             } else {
@@ -139,27 +178,60 @@ public class UserController {
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
         try {
-            // 1. Delete wallet
-            restTemplate.delete("http://WALLET-SERVICE/api/wallets/user/" + id);
-            // 2. Delete transactions
-            restTemplate.delete("http://TRANSACTION-SERVICE/api/transactions/user/" + id);
-            // 3. Delete notifications
-            restTemplate.delete("http://NOTIFICATION-SERVICE/api/notifications/user/" + id);
-            // 4. Delete user
-            userRepository.deleteById(id);
-            return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
+            Optional<User> userOptional = userRepository.findById(id);
+            if (userOptional.isEmpty()) {
+                // Already accepted earlier: point the caller at the existing deletion
+                return accountDeletionRepository.findById(id)
+                        .<ResponseEntity<?>>map(this::deletionAccepted)
+                        .orElseGet(() -> ResponseEntity.notFound().build());
+            }
+
+            AccountDeletion deletion = accountDeletionService.start(userOptional.get());
+            userSearchIndex.remove(id);
+            accountDeletionService.publish(deletion);
+            return deletionAccepted(deletion);
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body(Map.of("error", "Failed to delete user"));
         }
     }
+
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<?> getDeletionStatus(@PathVariable Long id) {
+        return accountDeletionRepository.findById(id)
+                .<ResponseEntity<?>>map(deletion -> ResponseEntity.ok(deletionStatus(deletion)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<?> deletionAccepted(AccountDeletion deletion) {
+        String statusUrl = "/api/users/" + deletion.getUserId() + "/deletion";
+        return ResponseEntity.accepted()
+                .location(URI.create(statusUrl))
+                .body(Map.of("message", "User deletion accepted", "statusUrl", statusUrl, "status", deletion.getStatus()));
+    }
+
+    private Map<String, Object> deletionStatus(AccountDeletion deletion) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("userId", deletion.getUserId());
+        status.put("status", deletion.getStatus());
+        status.put("steps", Map.of(
+                "user", true,
+                DeletionProgressEvent.WALLET, deletion.isWalletDeleted(),
+                DeletionProgressEvent.TRANSACTIONS, deletion.isTransactionsDeleted(),
+                DeletionProgressEvent.NOTIFICATIONS, deletion.isNotificationsDeleted()
+        ));
+        status.put("requestedAt", deletion.getRequestedAt());
+        status.put("completedAt", deletion.getCompletedAt());
+        return status;
+    }
+
     @PostMapping("/{id}/transaction-password")
     public ResponseEntity<?> setTransactionPassword(@PathVariable Long id, @RequestBody SetTransactionPasswordRequest request) {
         Optional<User> userOptional = userRepository.findById(id);
 
         if (userOptional.isPresent()) {
             User user = userOptional.get();
-            user.setTransactionPassword(passwordEncoder.encode(request.getPassword()));
+            user.setTransactionPassword(passwordHashingService.encode(request.getPassword()));
             userRepository.save(user);
             return ResponseEntity.ok(Map.of("message", "Transaction password set successfully"));
         }
@@ -177,12 +249,12 @@ public class UserController {
         User user = userOptional.get();
 
         // Verify user's current login password
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getCurrentPassword(), user.getPassword())) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Incorrect account password."));
         }
 
         // Set the new transaction password
-        user.setTransactionPassword(passwordEncoder.encode(request.getNewTxnPassword()));
+        user.setTransactionPassword(passwordHashingService.encode(request.getNewTxnPassword()));
         userRepository.save(user);
 
         return ResponseEntity.ok(Map.of("message", "Transaction PIN changed successfully."));
@@ -197,13 +269,36 @@ public class UserController {
             if (user.getTransactionPassword() == null) {
                 return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(Map.of("verified", false, "error", "Transaction password not set"));
             }
-            if (passwordEncoder.matches(request.getTransactionPassword(), user.getTransactionPassword())) {
+            if (passwordHashingService.matchesForPayment(request.getTransactionPassword(), user.getTransactionPassword())) {
                 return ResponseEntity.ok(Map.of("verified", true));
             }
         }
 
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("verified", false, "error", "Invalid transaction password"));
     }
+
+    @PostMapping("/{id}/payment-authorizations")
+    public ResponseEntity<?> authorizePayments(@PathVariable Long id, @RequestBody PaymentAuthorizationRequest request,
+                                               @RequestHeader(value = "X-User-Id", required = false) Long authenticatedUserId) {
+        if (authenticatedUserId != null && !authenticatedUserId.equals(id)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Cannot authorize payments for another user"));
+        }
+        Optional<User> userOptional = userRepository.findById(id);
+        if (userOptional.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        User user = userOptional.get();
+        if (user.getTransactionPassword() == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(Map.of("error", "Transaction password not set"));
+        }
+        if (!passwordHashingService.matchesForPayment(request.getTransactionPassword(), user.getTransactionPassword())) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid transaction password"));
+        }
+
+        return ResponseEntity.ok(paymentTokenService.issue(id, request.getMaxAmount()));
+    }
+
     @PutMapping("/{id}/name")
     public ResponseEntity<?> updateUserName(@PathVariable Long id, @RequestBody UpdateNameRequest request) {
         Optional<User> userOptional = userRepository.findById(id);
@@ -212,7 +307,9 @@ public class UserController {
             User user = userOptional.get();
             user.setFirstName(request.getFirstName());
             user.setLastName(request.getLastName());
-            userRepository.save(user);
+            User savedUser = userRepository.save(user);
+            userSearchIndex.index(savedUser);
+            kafkaProducerService.sendUserEvent(new UserEvent(UserEvent.UPDATED, savedUser));
             return ResponseEntity.ok(Map.of("message", "Name updated successfully"));
         }
 
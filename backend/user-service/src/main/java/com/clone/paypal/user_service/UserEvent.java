@@ -0,0 +1,70 @@
+package com.clone.paypal.user_service;
+
+public class UserEvent {
+    public static final String REGISTERED = "REGISTERED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    private String eventType;
+    private Long userId;
+    private String email;
+    private String firstName;
+    private String lastName;
+
+    public UserEvent() {
+    }
+
+    public UserEvent(String eventType, Long userId, String email) {
+        this.eventType = eventType;
+        this.userId = userId;
+        this.email = email;
+    }
+
+    public UserEvent(String eventType, User user) {
+        this.eventType = eventType;
+        this.userId = user.getId();
+        this.email = user.getEmail();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+}
@@ -0,0 +1,9 @@
+package com.clone.paypal.user_service;
+
+// Column projection for list lookups; never loads password hashes
+public interface UserProfileView {
+    Long getId();
+    String getFirstName();
+    String getLastName();
+    String getEmail();
+}
@@ -1,9 +1,15 @@
 package com.clone.paypal.user_service;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-    List<User> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(String firstName, String lastName, String email);
+    Page<User> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(String firstName, String lastName, String email, Pageable pageable);
+    List<User> findTop1000ByIdGreaterThanOrderByIdAsc(Long id);
+    List<UserProfileView> findByIdIn(Collection<Long> ids);
+    List<UserProfileView> findByEmailIn(Collection<String> emails);
 }
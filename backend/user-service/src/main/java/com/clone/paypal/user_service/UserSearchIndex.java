@@ -0,0 +1,284 @@
+package com.clone.paypal.user_service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory search index over users, replacing the LIKE '%q%' scans.
+ * Queries of three or more characters intersect trigram posting sets; shorter queries
+ * do a prefix scan over name and email tokens. Reads are lock-free, writes are serialized.
+ * Writes that arrive while the startup load runs win over the rows it read.
+ */
+@Component
+public class UserSearchIndex {
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ConcurrentSkipListMap<Long, Entry> entries = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<Long>> trigrams = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> tokens = new ConcurrentSkipListMap<>();
+    private volatile boolean ready = false;
+    private Map<Long, User> writesDuringRebuild; // Latest write per user while rebuilding, null for a removal; guarded by this
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            writesDuringRebuild = new HashMap<>();
+        }
+        boolean loaded = false;
+        try {
+            long lastId = 0L;
+            List<User> batch;
+            do {
+                batch = userRepository.findTop1000ByIdGreaterThanOrderByIdAsc(lastId);
+                load(batch);
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+            loaded = true;
+        } finally {
+            synchronized (this) {
+                writesDuringRebuild = null;
+                ready = loaded; // A failed load keeps searches on the database
+            }
+        }
+    }
+
+    // A row may have been read before a concurrent write to it was indexed; the write is newer, so it stays
+    private synchronized void load(List<User> batch) {
+        for (User user : batch) {
+            if (!writesDuringRebuild.containsKey(user.getId())) {
+                put(user);
+            }
+        }
+    }
+
+    public synchronized void index(User user) {
+        if (writesDuringRebuild != null) {
+            writesDuringRebuild.put(user.getId(), user);
+        }
+        put(user);
+    }
+
+    public synchronized void remove(Long userId) {
+        if (writesDuringRebuild != null) {
+            writesDuringRebuild.put(userId, null);
+        }
+        delete(userId);
+    }
+
+    private void put(User user) {
+        delete(user.getId());
+        Entry entry = new Entry(user);
+        for (String trigram : trigramsOf(entry.haystack)) {
+            trigrams.compute(trigram, (key, ids) -> add(ids, entry.id));
+        }
+        for (String token : entry.tokens()) {
+            tokens.compute(token, (key, ids) -> add(ids, entry.id));
+        }
+        entries.put(entry.id, entry);
+    }
+
+    private void delete(Long userId) {
+        Entry entry = entries.remove(userId);
+        if (entry == null) {
+            return;
+        }
+        for (String trigram : trigramsOf(entry.haystack)) {
+            trigrams.computeIfPresent(trigram, (key, ids) -> without(ids, userId));
+        }
+        for (String token : entry.tokens()) {
+            tokens.computeIfPresent(token, (key, ids) -> without(ids, userId));
+        }
+    }
+
+    public SearchResult search(String query, int page, int size) {
+        String needle = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        long offset = (long) page * size;
+
+        if (!ready) {
+            // Still warming up after a restart: fall back to the database, one page at a time
+            Page<User> matches = userRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
+                    needle, needle, needle, PageRequest.of(page, size, Sort.by("id")));
+            return new SearchResult(matches.stream().map(UserSummary::from).toList(), matches.getTotalElements());
+        }
+
+        if (needle.isEmpty()) {
+            List<UserSummary> results = entries.values().stream().skip(offset).limit(size).map(Entry::toSummary).toList();
+            return new SearchResult(results, entries.size());
+        }
+
+        Collection<Long> candidates = needle.length() < 3 ? prefixCandidates(needle) : trigramCandidates(needle);
+
+        // Keep only the best offset + size matches instead of sorting every candidate
+        Comparator<Scored> ranking = Comparator.comparingInt((Scored s) -> s.score).reversed()
+                .thenComparing(s -> s.entry.id);
+        PriorityQueue<Scored> top = new PriorityQueue<>(ranking.reversed());
+        int total = 0;
+        for (Long id : candidates) {
+            Entry entry = entries.get(id);
+            if (entry == null || !entry.haystack.contains(needle)) {
+                continue;
+            }
+            total++;
+            top.offer(new Scored(entry, entry.score(needle)));
+            if (top.size() > offset + size) {
+                top.poll();
+            }
+        }
+
+        List<Scored> ranked = new ArrayList<>(top);
+        ranked.sort(ranking);
+        List<UserSummary> results = ranked.stream().skip(offset).map(s -> s.entry.toSummary()).toList();
+        return new SearchResult(results, total);
+    }
+
+    private Collection<Long> prefixCandidates(String needle) {
+        Set<Long> ids = new HashSet<>();
+        tokens.subMap(needle, true, needle + Character.MAX_VALUE, true).values().forEach(ids::addAll);
+        return ids;
+    }
+
+    private Collection<Long> trigramCandidates(String needle) {
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String trigram : trigramsOf(needle)) {
+            Set<Long> ids = trigrams.get(trigram);
+            if (ids == null) {
+                return List.of();
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        List<Long> result = new ArrayList<>();
+        for (Long id : postings.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < postings.size() && inAll; i++) {
+                inAll = postings.get(i).contains(id);
+            }
+            if (inAll) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> trigramsOf(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            result.add(text.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    private static Set<Long> add(Set<Long> ids, Long id) {
+        Set<Long> result = ids != null ? ids : ConcurrentHashMap.newKeySet();
+        result.add(id);
+        return result;
+    }
+
+    private static Set<Long> without(Set<Long> ids, Long id) {
+        ids.remove(id);
+        return ids.isEmpty() ? null : ids;
+    }
+
+    public static class SearchResult {
+        private final List<UserSummary> results;
+        private final long total;
+
+        public SearchResult(List<UserSummary> results, long total) {
+            this.results = results;
+            this.total = total;
+        }
+
+        public List<UserSummary> getResults() {
+            return results;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+
+    private static class Scored {
+        private final Entry entry;
+        private final int score;
+
+        private Scored(Entry entry, int score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+
+    private static class Entry {
+        private final Long id;
+        private final String firstName;
+        private final String lastName;
+        private final String email;
+        private final String haystack;
+
+        private Entry(User user) {
+            this.id = user.getId();
+            this.firstName = user.getFirstName() == null ? "" : user.getFirstName();
+            this.lastName = user.getLastName() == null ? "" : user.getLastName();
+            this.email = user.getEmail() == null ? "" : user.getEmail();
+            this.haystack = (firstName + " " + lastName + " " + email).toLowerCase(Locale.ROOT);
+        }
+
+        private Set<String> tokens() {
+            String lowerEmail = email.toLowerCase(Locale.ROOT);
+            Set<String> result = new HashSet<>();
+            result.add(firstName.toLowerCase(Locale.ROOT));
+            result.add(lastName.toLowerCase(Locale.ROOT));
+            result.add(lowerEmail);
+            result.remove("");
+            return result;
+        }
+
+        private int score(String needle) {
+            String lowerFirst = firstName.toLowerCase(Locale.ROOT);
+            String lowerLast = lastName.toLowerCase(Locale.ROOT);
+            String lowerEmail = email.toLowerCase(Locale.ROOT);
+            if (lowerEmail.equals(needle)) {
+                return 100;
+            }
+            if (lowerFirst.equals(needle) || lowerLast.equals(needle)) {
+                return 90;
+            }
+            if (lowerFirst.startsWith(needle) || lowerLast.startsWith(needle)) {
+                return 70;
+            }
+            if (lowerEmail.startsWith(needle)) {
+                return 50;
+            }
+            if ((lowerFirst + " " + lowerLast).contains(needle)) {
+                return 30;
+            }
+            return 10;
+        }
+
+        private UserSummary toSummary() {
+            return new UserSummary(id, firstName, lastName, UserSummary.maskEmail(email));
+        }
+    }
+}
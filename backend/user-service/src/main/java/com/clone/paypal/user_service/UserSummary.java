@@ -0,0 +1,68 @@
+package com.clone.paypal.user_service;
+
+public class UserSummary {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String maskedEmail;
+
+    public UserSummary(Long id, String firstName, String lastName, String maskedEmail) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.maskedEmail = maskedEmail;
+    }
+
+    public static UserSummary from(User user) {
+        return new UserSummary(user.getId(), user.getFirstName(), user.getLastName(), maskEmail(user.getEmail()));
+    }
+
+    public static UserSummary from(UserProfileView view) {
+        return new UserSummary(view.getId(), view.getFirstName(), view.getLastName(), maskEmail(view.getEmail()));
+    }
+
+    // "jane.doe@example.com" -> "j******e@example.com"
+    public static String maskEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.indexOf('@');
+        if (at <= 1) {
+            return email;
+        }
+        String local = email.substring(0, at);
+        return local.charAt(0) + "*".repeat(Math.max(local.length() - 2, 1)) + local.charAt(local.length() - 1) + email.substring(at);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getMaskedEmail() {
+        return maskedEmail;
+    }
+
+    public void setMaskedEmail(String maskedEmail) {
+        this.maskedEmail = maskedEmail;
+    }
+}
@@ -0,0 +1,73 @@
+package com.clone.paypal.user_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the split-bill JDBC batch against the schema Hibernate generates from the entities,
+ * so a new NOT NULL column the raw insert does not fill fails here instead of in production.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:money-request-groups;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(MoneyRequestGroupService.class)
+class MoneyRequestGroupServiceTest {
+
+    @Autowired
+    private MoneyRequestGroupService moneyRequestGroupService;
+
+    @Autowired
+    private MoneyRequestRepository moneyRequestRepository;
+
+    @Autowired
+    private PendingRequestCounterRepository pendingRequestCounterRepository;
+
+    @Test
+    void createsOnePendingShareAndCounterPerRecipient() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BigDecimal> shares = MoneyRequestGroupService.split(new BigDecimal("100.00"), 3);
+
+        MoneyRequestGroup group = moneyRequestGroupService.create(1L, List.of(2L, 3L, 4L), shares,
+                new BigDecimal("100.00"), "Dinner", now, now.plusDays(7));
+
+        List<MoneyRequest> stored = moneyRequestRepository.findAll();
+        assertEquals(3, stored.size());
+        for (MoneyRequest request : stored) {
+            assertEquals(group.getId(), request.getGroupId());
+            assertEquals(MoneyRequest.PENDING, request.getStatus());
+            assertEquals(0, request.getApprovalAttempt());
+            assertEquals(0, request.getApprovalRepublishes());
+        }
+        assertEquals(new BigDecimal("100.00"), stored.stream().map(MoneyRequest::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add));
+        for (Long recipientId : List.of(2L, 3L, 4L)) {
+            assertEquals(1, pendingRequestCounterRepository.findById(recipientId).orElseThrow().getPendingCount());
+        }
+    }
+
+    @Test
+    void incrementsExistingCounters() {
+        LocalDateTime now = LocalDateTime.now();
+        moneyRequestGroupService.create(1L, List.of(2L, 3L), MoneyRequestGroupService.split(new BigDecimal("10"), 2),
+                new BigDecimal("10"), null, now, now.plusDays(7));
+        moneyRequestGroupService.create(5L, List.of(2L), List.of(new BigDecimal("4")),
+                new BigDecimal("4"), null, now, now.plusDays(7));
+
+        assertEquals(2, pendingRequestCounterRepository.findById(2L).orElseThrow().getPendingCount());
+        assertTrue(pendingRequestCounterRepository.findById(3L).isPresent());
+    }
+}
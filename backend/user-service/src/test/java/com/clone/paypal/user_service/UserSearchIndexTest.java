@@ -0,0 +1,87 @@
+package com.clone.paypal.user_service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserSearchIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserSearchIndex index;
+
+    @Test
+    void writeDuringRebuildWinsOverTheRowItRead() {
+        User stale = user(1L, "Alice", "alice@example.com");
+        when(userRepository.findTop1000ByIdGreaterThanOrderByIdAsc(anyLong())).thenAnswer(invocation -> {
+            index.index(user(1L, "Alicia", "alice@example.com")); // Renamed after the batch read the row
+            return List.of(stale);
+        });
+
+        index.rebuild();
+
+        List<UserSummary> results = index.search("alice", 0, 10).getResults();
+        assertEquals(1, results.size());
+        assertEquals("Alicia", results.get(0).getFirstName());
+    }
+
+    @Test
+    void removalDuringRebuildIsNotUndone() {
+        when(userRepository.findTop1000ByIdGreaterThanOrderByIdAsc(anyLong())).thenAnswer(invocation -> {
+            index.remove(1L);
+            return List.of(user(1L, "Alice", "alice@example.com"));
+        });
+
+        index.rebuild();
+
+        assertEquals(0, index.search("alice", 0, 10).getTotal());
+    }
+
+    @Test
+    void pageBeyondIntRangeReturnsNothing() {
+        when(userRepository.findTop1000ByIdGreaterThanOrderByIdAsc(anyLong())).thenReturn(List.of(user(1L, "Alice", "alice@example.com")));
+        index.rebuild();
+
+        UserSearchIndex.SearchResult result = index.search("ali", Integer.MAX_VALUE, 100);
+
+        assertTrue(result.getResults().isEmpty());
+        assertEquals(1, result.getTotal());
+    }
+
+    @Test
+    void fallbackBeforeReadyReadsOnePage() {
+        when(userRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
+                eq("ali"), eq("ali"), eq("ali"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(user(1L, "Alice", "alice@example.com")), PageRequest.of(0, 1), 42));
+
+        UserSearchIndex.SearchResult result = index.search("ali", 0, 1);
+
+        assertEquals(1, result.getResults().size());
+        assertEquals(42, result.getTotal());
+    }
+
+    private static User user(Long id, String firstName, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setFirstName(firstName);
+        user.setLastName("Smith");
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -0,0 +1,30 @@
+package com.clone.paypal.wallet_service;
+
+public class DeletionProgressEvent {
+    private Long userId;
+    private String service;
+
+    public DeletionProgressEvent() {
+    }
+
+    public DeletionProgressEvent(Long userId, String service) {
+        this.userId = userId;
+        this.service = service;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public void setService(String service) {
+        this.service = service;
+    }
+}
@@ -1,17 +1,23 @@
 package com.clone.paypal.wallet_service;
 
+import com.clone.paypal.events.EventEnvelope;
+import com.clone.paypal.events.EventPublisher;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 @Service
 public class KafkaProducerService {
     private static final String TOPIC = "notification_topic";
+    private static final String DELETION_PROGRESS_TOPIC = "user_deletion_progress";
 
     @Autowired
-    private KafkaTemplate<String, NotificationRequest> kafkaTemplate;
+    private EventPublisher eventPublisher;
 
     public void sendNotificationEvent(NotificationRequest request) {
-        kafkaTemplate.send(TOPIC, request);
+        eventPublisher.publish(TOPIC, EventEnvelope.withId(request.getEventId(), "notification", request.getUserId(), request));
     }
-}
\ No newline at end of file
+
+    public void sendDeletionProgress(DeletionProgressEvent event) {
+        eventPublisher.publish(DELETION_PROGRESS_TOPIC, EventEnvelope.of("deletion.progress", event.getUserId(), event));
+    }
+}
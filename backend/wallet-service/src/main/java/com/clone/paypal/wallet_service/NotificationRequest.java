@@ -1,6 +1,9 @@
 package com.clone.paypal.wallet_service;
 
+import java.util.UUID;
+
 public class NotificationRequest {
+    private String eventId = UUID.randomUUID().toString(); // Lets the consumer drop redelivered copies
     private Long userId;
     private String message;
 
@@ -37,4 +40,12 @@ public class NotificationRequest {
     public void setMessage(String message) {
         this.message = message;
     }
-}
\ No newline at end of file
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+}
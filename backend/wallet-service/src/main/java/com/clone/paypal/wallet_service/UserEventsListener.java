@@ -0,0 +1,51 @@
+package com.clone.paypal.wallet_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class UserEventsListener {
+    private static final Logger logger = LoggerFactory.getLogger(UserEventsListener.class);
+    private static final String SERVICE_NAME = "wallet";
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletCreditRepository walletCreditRepository;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @KafkaListener(topics = "user_events", groupId = "wallet-service-user-events", batch = "true")
+    public void onUserEvents(List<UserEvent> events) {
+        // Registrations are collected and provisioned together; a deletion in the same
+        // batch cancels a pending registration for that user so ordering is preserved.
+        Set<Long> registered = new LinkedHashSet<>();
+        for (UserEvent event : events) {
+            if (UserEvent.REGISTERED.equals(event.getEventType())) {
+                registered.add(event.getUserId());
+            } else if (UserEvent.DELETED.equals(event.getEventType())) {
+                registered.remove(event.getUserId());
+                walletRepository.deleteByUserId(event.getUserId());
+                walletCreditRepository.deleteByUserId(event.getUserId());
+                logger.info("Deleted wallet of user {}", event.getUserId());
+                kafkaProducerService.sendDeletionProgress(new DeletionProgressEvent(event.getUserId(), SERVICE_NAME));
+            }
+        }
+
+        walletService.getOrCreateAll(registered);
+        if (!registered.isEmpty()) {
+            logger.info("Provisioned wallets for {} registered users", registered.size());
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package com.clone.paypal.wallet_service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.math.BigDecimal;
 import java.util.Map;
 import java.util.Optional;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,6 +18,12 @@ public class WalletController {
     @Autowired
     private KafkaProducerService kafkaProducerService;
 
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletCreditRepository walletCreditRepository;
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<Wallet> getWalletByUserId(@PathVariable Long userId) {
         return walletRepository.findByUserId(userId)
@@ -32,18 +38,7 @@ public class WalletController {
             return ResponseEntity.badRequest().build();
         }
 
-        // --- FIX: Implement "Get or Create" Logic ---
-        Optional<Wallet> existingWallet = walletRepository.findByUserId(userId);
-        if (existingWallet.isPresent()) {
-            return ResponseEntity.ok(existingWallet.get());
-        }
-
-        Wallet wallet = new Wallet();
-        wallet.setUserId(userId);
-        wallet.setBalance(BigDecimal.ZERO);
-        wallet.setCurrency("INR");
-        Wallet savedWallet = walletRepository.save(wallet);
-        return ResponseEntity.ok(savedWallet);
+        return ResponseEntity.ok(walletService.getOrCreate(userId));
     }
 
     @PostMapping("/debit")
@@ -75,12 +70,13 @@ public class WalletController {
 
     @PostMapping("/credit")
     public ResponseEntity<Void> credit(@RequestBody WalletTransactionRequest request) {
-        Wallet wallet = walletRepository.findByUserId(request.getUserId()).orElse(null);
-        if (wallet == null) {
-            return ResponseEntity.badRequest().build(); // Wallet not found
+        try {
+            if (!walletService.credit(request.getUserId(), request.getAmount(), request.getReference())) {
+                return ResponseEntity.badRequest().build(); // Wallet not found
+            }
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent call with the same reference applied it first
         }
-        wallet.setBalance(wallet.getBalance().add(request.getAmount()));
-        walletRepository.save(wallet);
         return ResponseEntity.ok().build();
     }
 
@@ -91,6 +87,7 @@ public class WalletController {
         if (walletOptional.isPresent()) {
             walletRepository.delete(walletOptional.get());
         }
+        walletCreditRepository.deleteByUserId(userId);
         return ResponseEntity.ok().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.clone.paypal.wallet_service;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A referenced credit that has been applied, so a retried refund is never paid twice.
+ */
+@Entity
+@Table(name = "wallet_credits", indexes = @Index(name = "idx_wallet_credits_user", columnList = "userId"))
+public class WalletCredit implements Persistable<String> {
+    @Id
+    @Column(length = 191)
+    private String reference;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public WalletCredit() {
+    }
+
+    public WalletCredit(String reference, Long userId, BigDecimal amount, LocalDateTime createdAt) {
+        this.reference = reference;
+        this.userId = userId;
+        this.amount = amount;
+        this.createdAt = createdAt;
+    }
+
+    // Always inserted, never merged, so a second credit with the same reference fails on the primary key
+    @Override
+    public String getId() {
+        return reference;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
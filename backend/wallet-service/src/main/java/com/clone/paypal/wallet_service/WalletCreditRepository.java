@@ -0,0 +1,14 @@
+package com.clone.paypal.wallet_service;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface WalletCreditRepository extends JpaRepository<WalletCredit, String> {
+    @Transactional
+    @Modifying
+    @Query("delete from WalletCredit c where c.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,10 +1,15 @@
 package com.clone.paypal.wallet_service;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
     // A custom method to find a wallet by the user's ID
     Optional<Wallet> findByUserId(Long userId);
+    List<Wallet> findByUserIdIn(Collection<Long> userIds);
+    @Transactional
     void deleteByUserId(Long userId);
 }
\ No newline at end of file
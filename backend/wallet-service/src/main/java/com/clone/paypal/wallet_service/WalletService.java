@@ -0,0 +1,108 @@
+package com.clone.paypal.wallet_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Get-or-create for wallets. The unique userId column is the arbiter when the
+ * registration consumer and an explicit POST /api/wallets race for the same user.
+ * Referenced credits are recorded in the same transaction as the balance change.
+ */
+@Service
+public class WalletService {
+    private static final Logger logger = LoggerFactory.getLogger(WalletService.class);
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletCreditRepository walletCreditRepository;
+
+    /**
+     * Adds amount to the user's wallet, at most once per reference when one is given.
+     * Returns false if the wallet does not exist. A concurrent credit with the same reference
+     * surfaces as DataIntegrityViolationException, meaning it has already been applied.
+     */
+    @Transactional
+    public boolean credit(Long userId, BigDecimal amount, String reference) {
+        Wallet wallet = walletRepository.findByUserId(userId).orElse(null);
+        if (wallet == null) {
+            return false;
+        }
+        if (reference != null) {
+            if (walletCreditRepository.existsById(reference)) {
+                return true; // Retry of a credit that already went through
+            }
+            walletCreditRepository.saveAndFlush(new WalletCredit(reference, userId, amount, LocalDateTime.now(ZoneId.of("Asia/Kolkata"))));
+        }
+        wallet.setBalance(wallet.getBalance().add(amount));
+        walletRepository.save(wallet);
+        return true;
+    }
+
+    public Wallet getOrCreate(Long userId) {
+        Optional<Wallet> existingWallet = walletRepository.findByUserId(userId);
+        if (existingWallet.isPresent()) {
+            return existingWallet.get();
+        }
+
+        try {
+            return walletRepository.save(newWallet(userId));
+        } catch (DataIntegrityViolationException e) {
+            // Someone else created it between our read and insert
+            return walletRepository.findByUserId(userId).orElseThrow(() -> e);
+        }
+    }
+
+    public void getOrCreateAll(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        Set<Long> existing = new HashSet<>();
+        for (Wallet wallet : walletRepository.findByUserIdIn(userIds)) {
+            existing.add(wallet.getUserId());
+        }
+
+        List<Wallet> missing = new ArrayList<>();
+        for (Long userId : userIds) {
+            if (!existing.contains(userId)) {
+                missing.add(newWallet(userId));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        try {
+            walletRepository.saveAll(missing);
+        } catch (DataIntegrityViolationException e) {
+            // The batch insert rolled back as a whole; settle each user individually
+            logger.info("Batch wallet insert hit an existing wallet, retrying {} users one by one", missing.size());
+            for (Wallet wallet : missing) {
+                getOrCreate(wallet.getUserId());
+            }
+        }
+    }
+
+    private Wallet newWallet(Long userId) {
+        Wallet wallet = new Wallet();
+        wallet.setUserId(userId);
+        wallet.setBalance(BigDecimal.ZERO);
+        wallet.setCurrency("INR");
+        return wallet;
+    }
+}
@@ -5,6 +5,7 @@ import java.math.BigDecimal;
 public class WalletTransactionRequest {
     private Long userId;
     private BigDecimal amount;
+    private String reference; // Optional idempotency key; a credit with a reference already applied is skipped
 
     public Long getUserId() {
         return userId;
@@ -21,4 +22,12 @@ public class WalletTransactionRequest {
     public void setAmount(BigDecimal amount) {
         this.amount = amount;
     }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
 }
@@ -13,8 +13,16 @@ import { RecentActivity } from "@/components/recent-activity";
 import { DashboardSkeleton } from "@/components/dashboard-skeleton";
 import { QuickActions } from "@/components/quick-actions";
 import { useToast } from "@/hooks/use-toast";
+import { useNotificationStream } from "@/hooks/use-notification-stream";
 import { User, Transaction, Notification } from "@/types";
-import { authApi, transactionApi, walletApi, notificationApi } from "@/lib/api-service";
+import { authApi, userApi, transactionApi, walletApi, notificationApi } from "@/lib/api-service";
+
+// A payment token from one PIN check; sends within its budget skip the password until it expires
+interface PaymentAuthorization {
+  token: string;
+  expiresAt: number; // epoch seconds
+  remaining: number;
+}
 
 export default function DashboardPage() {
   const router = useRouter();
@@ -24,9 +32,25 @@ export default function DashboardPage() {
   const [notifications, setNotifications] = useState<Notification[]>([]);
   const [unreadCount, setUnreadCount] = useState(0);
   const [user, setUser] = useState<User | null>(null);
+
+  useNotificationStream(user?.id, {
+    onNotification: (notification) => {
+      setNotifications((prev) => [notification, ...prev]);
+      setUnreadCount((count) => count + 1);
+    },
+    onNotificationUpdated: (notification) => {
+      // A digest grew in place; it is already counted as unread
+      setNotifications((prev) => prev.map((n) => (n.id === notification.id ? notification : n)));
+    },
+    onUnreadCount: setUnreadCount,
+    onConnected: () => {
+      if (user) fetchNotifications(user.id);
+    },
+  });
   const [showAddMoneyModal, setShowAddMoneyModal] = useState(false);
   const [showSendMoneyModal, setShowSendMoneyModal] = useState(false);
   const [showSetTxnPasswordModal, setShowSetTxnPasswordModal] = useState(false);
+  const [paymentAuthorization, setPaymentAuthorization] = useState<PaymentAuthorization | null>(null);
   const [loading, setLoading] = useState(true);
 
   const [balanceVisible, setBalanceVisible] = useState(false);
@@ -59,7 +83,6 @@ export default function DashboardPage() {
       fetchBalance(user.id);
       fetchTransactions(user.id);
       fetchNotifications(user.id);
-      fetchUnreadCount(user.id);
       setLoading(false);
     }
   }, [user]);
@@ -111,8 +134,6 @@ export default function DashboardPage() {
         await walletApi.addMoney(user.id, amount);
         fetchBalance(user.id);
         fetchTransactions(user.id);
-        fetchNotifications(user.id);
-        fetchUnreadCount(user.id);
         toast({ title: "Money Added Successfully!", description: `₹${amount.toFixed(2)} has been added to your wallet.`, variant: "success" });
       } catch (err: unknown) {
         console.error("Failed to add money", err);
@@ -121,26 +142,44 @@ export default function DashboardPage() {
     }
   };
 
+  // Budget left on the current payment token, or 0 once it is about to expire
+  const authorizedAmount = () =>
+    paymentAuthorization && paymentAuthorization.expiresAt * 1000 > Date.now() + 10000 ? paymentAuthorization.remaining : 0;
+
   const handleSendMoney = async (recipientEmail: string, amount: number, description: string, transactionPassword?: string) => {
-    if (recipientEmail && amount && user && transactionPassword) {
+    if (!recipientEmail || !amount || !user) return;
+
+    let authorization = amount <= authorizedAmount() ? paymentAuthorization : null;
+    if (!authorization) {
+      if (!transactionPassword) return;
       try {
-        await transactionApi.createTransaction({ senderId: user.id, recipientEmail, amount, description, transactionPassword });
-        fetchBalance(user.id);
-        fetchTransactions(user.id);
-        fetchNotifications(user.id);
-        fetchUnreadCount(user.id);
-        toast({ title: "Money Sent Successfully!", description: `₹${amount.toFixed(2)} has been sent to ${recipientEmail}.`, variant: "success" });
+        const issued = await userApi.authorizePayments(user.id, transactionPassword);
+        authorization = { token: issued.paymentToken, expiresAt: issued.expiresAt, remaining: Number(issued.maxAmount) };
       } catch (err: any) {
-        if (err.response?.data?.message === "Transaction password not set") {
+        if (err.response?.status === 412) {
           setShowSendMoneyModal(false);
           setShowSetTxnPasswordModal(true);
         } else {
-          console.error("Failed to send money", err);
-          const errorMessage = err.response?.data?.message || "Check your balance and try again.";
+          const errorMessage = err.response?.data?.error || "Could not verify your transaction password.";
           toast({ title: "Failed to Send Money", description: errorMessage, variant: "destructive" });
         }
+        return;
       }
     }
+
+    try {
+      await transactionApi.createTransaction({ senderId: user.id, recipientEmail, amount, description, paymentToken: authorization.token });
+      setPaymentAuthorization({ ...authorization, remaining: authorization.remaining - amount });
+      fetchBalance(user.id);
+      fetchTransactions(user.id);
+      toast({ title: "Money Sent Successfully!", description: `₹${amount.toFixed(2)} has been sent to ${recipientEmail}.`, variant: "success" });
+    } catch (err: any) {
+      const errorMessage: string = err.response?.data?.message || "Check your balance and try again.";
+      // Failures before the debit give the budget back; a rejected token has to be replaced
+      setPaymentAuthorization(errorMessage.startsWith("Payment token") ? null : authorization);
+      console.error("Failed to send money", err);
+      toast({ title: "Failed to Send Money", description: errorMessage, variant: "destructive" });
+    }
   };
 
   const handleMarkAllNotificationsAsRead = async () => {
@@ -322,7 +361,7 @@ export default function DashboardPage() {
       </div>
 
       <AddMoneyModal show={showAddMoneyModal} handleClose={() => setShowAddMoneyModal(false)} handleAddMoney={handleAddMoney} />
-      <SendMoneyModal show={showSendMoneyModal} handleClose={() => setShowSendMoneyModal(false)} handleSendMoney={handleSendMoney} />
+      <SendMoneyModal show={showSendMoneyModal} handleClose={() => setShowSendMoneyModal(false)} handleSendMoney={handleSendMoney} authorizedAmount={authorizedAmount()} />
       <SetTxnPasswordModal user={user} show={showSetTxnPasswordModal} handleClose={() => setShowSetTxnPasswordModal(false)} />
     </DashboardLayout>
   );
@@ -21,6 +21,7 @@ import {
 } from "@/components/ui/dialog";
 import { Separator } from "@/components/ui/separator";
 import { useToast } from "@/hooks/use-toast";
+import { useNotificationStream } from "@/hooks/use-notification-stream";
 import { User, Notification } from "@/types";
 import { authApi, userApi, notificationApi } from "@/lib/api-service";
 import { cn } from "@/lib/utils";
@@ -36,6 +37,21 @@ export default function ProfilePage() {
   const [showDeleteModal, setShowDeleteModal] = useState(false);
   const [notifications, setNotifications] = useState<Notification[]>([]);
   const [unreadCount, setUnreadCount] = useState(0);
+
+  useNotificationStream(user?.id, {
+    onNotification: (notification) => {
+      setNotifications((prev) => [notification, ...prev]);
+      setUnreadCount((count) => count + 1);
+    },
+    onNotificationUpdated: (notification) => {
+      // A digest grew in place; it is already counted as unread
+      setNotifications((prev) => prev.map((n) => (n.id === notification.id ? notification : n)));
+    },
+    onUnreadCount: setUnreadCount,
+    onConnected: () => {
+      if (user) fetchNotifications(user.id);
+    },
+  });
   const [editForm, setEditForm] = useState({
     firstName: "",
     lastName: "",
@@ -64,7 +80,6 @@ export default function ProfilePage() {
         lastName: user.lastName,
       });
       fetchNotifications(user.id);
-      fetchUnreadCount(user.id);
     }
   }, [user]);
 
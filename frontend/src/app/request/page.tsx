@@ -1,6 +1,6 @@
 "use client";
 
-import { useState, useEffect, useMemo } from "react";
+import { useState, useEffect } from "react";
 import { useRouter } from "next/navigation";
 import { Card, CardContent } from "@/components/ui/card";
 import { Button } from "@/components/ui/button";
@@ -16,7 +16,8 @@ import {
 } from "@/components/ui/tabs";
 import { formatDistanceToNowStrict } from "date-fns";
 import { useToast } from "@/hooks/use-toast";
-import { MoneyRequest, User, Notification } from "@/types";
+import { useNotificationStream } from "@/hooks/use-notification-stream";
+import { MoneyRequest, User, UserSummary, Notification } from "@/types";
 import { requestApi, authApi, notificationApi, userApi } from "@/lib/api-service";
 import { MoneyRequestModal } from "@/components/money-request-modal";
 import { ApproveRequestModal } from "@/components/approve-request-modal";
@@ -27,14 +28,35 @@ export default function RequestMoneyPage() {
   const router = useRouter();
   const [incomingRequests, setIncomingRequests] = useState<MoneyRequest[]>([]);
   const [outgoingRequests, setOutgoingRequests] = useState<MoneyRequest[]>([]);
+  const [incomingCursor, setIncomingCursor] = useState<string | null>(null);
+  const [outgoingCursor, setOutgoingCursor] = useState<string | null>(null);
   const [loading, setLoading] = useState(true);
   const [showCreateModal, setShowCreateModal] = useState(false);
   const [showApproveModal, setShowApproveModal] = useState(false);
   const [selectedRequest, setSelectedRequest] = useState<MoneyRequest | null>(null);
   const [user, setUser] = useState<User | null>(null);
-  const [users, setUsers] = useState<User[]>([]);
+  const [users, setUsers] = useState<UserSummary[]>([]);
   const [notifications, setNotifications] = useState<Notification[]>([]);
   const [unreadCount, setUnreadCount] = useState(0);
+  const [pendingIncomingCount, setPendingIncomingCount] = useState(0);
+
+  useNotificationStream(user?.id, {
+    onNotification: (notification) => {
+      setNotifications((prev) => [notification, ...prev]);
+      setUnreadCount((count) => count + 1);
+      if (notification.type.startsWith("Money Request")) {
+        refreshRequests();
+      }
+    },
+    onNotificationUpdated: (notification) => {
+      // A digest grew in place; it is already counted as unread
+      setNotifications((prev) => prev.map((n) => (n.id === notification.id ? notification : n)));
+    },
+    onUnreadCount: setUnreadCount,
+    onConnected: () => {
+      if (user) fetchNotifications(user.id);
+    },
+  });
 
   useEffect(() => {
     const token = localStorage.getItem("token");
@@ -48,11 +70,10 @@ export default function RequestMoneyPage() {
         const currentUser = await authApi.getMe();
         setUser(currentUser);
         await Promise.all([
-          fetchAllUsers(),
           fetchIncomingRequests(),
           fetchOutgoingRequests(),
           fetchNotifications(currentUser.id),
-          fetchUnreadCount(currentUser.id)
+          fetchPendingCount(currentUser.id)
         ]);
       } catch (error) {
         console.error("Error fetching data:", error);
@@ -66,19 +87,30 @@ export default function RequestMoneyPage() {
 
   const refreshData = () => {
     if (user) {
-      fetchIncomingRequests();
-      fetchOutgoingRequests();
-      fetchNotifications(user.id);
-      fetchUnreadCount(user.id);
+      refreshRequests();
     }
   };
 
-  const fetchAllUsers = async () => {
+  const refreshRequests = () => {
+    fetchIncomingRequests();
+    fetchOutgoingRequests();
+    if (user) fetchPendingCount(user.id);
+  };
+
+  useEffect(() => {
+    fetchCounterparties(
+      [...incomingRequests, ...outgoingRequests].flatMap((req) => [req.requesterId, req.recipientId])
+    );
+  }, [incomingRequests, outgoingRequests]);
+
+  const fetchCounterparties = async (ids: number[]) => {
+    const uniqueIds = Array.from(new Set(ids.filter(Boolean)));
+    if (uniqueIds.length === 0) return;
     try {
-      const response = await userApi.searchUsers("");
+      const response = await userApi.getUsersBatch(uniqueIds);
       setUsers(response);
     } catch (error) {
-      console.error("Error fetching all users:", error);
+      console.error("Error fetching counterparties:", error);
     }
   };
   
@@ -87,19 +119,22 @@ export default function RequestMoneyPage() {
     return user ? `${user.firstName} ${user.lastName}` : `User ${id}`;
   };
 
-  const fetchIncomingRequests = async () => {
+  // Without a cursor the first page replaces the list; with one, the older page is appended
+  const fetchIncomingRequests = async (cursor?: string) => {
     try {
-      const response = await requestApi.getIncomingRequests();
-      setIncomingRequests(response);
+      const page = await requestApi.getIncomingRequests(undefined, cursor);
+      setIncomingRequests((prev) => (cursor ? [...prev, ...page.requests] : page.requests));
+      setIncomingCursor(page.nextCursor);
     } catch (error) {
       console.error("Error fetching incoming requests:", error);
     }
   };
 
-  const fetchOutgoingRequests = async () => {
+  const fetchOutgoingRequests = async (cursor?: string) => {
     try {
-      const response = await requestApi.getOutgoingRequests();
-      setOutgoingRequests(response);
+      const page = await requestApi.getOutgoingRequests(undefined, cursor);
+      setOutgoingRequests((prev) => (cursor ? [...prev, ...page.requests] : page.requests));
+      setOutgoingCursor(page.nextCursor);
     } catch (error) {
       console.error("Error fetching outgoing requests:", error);
     }
@@ -123,6 +158,14 @@ export default function RequestMoneyPage() {
     }
   };
 
+  const fetchPendingCount = async (userId: number) => {
+    try {
+      setPendingIncomingCount(await requestApi.getPendingCount(userId));
+    } catch (err) {
+      console.error("Failed to fetch pending count", err);
+    }
+  };
+
   const handleApprove = (request: MoneyRequest) => {
     setSelectedRequest(request);
     setShowApproveModal(true);
@@ -157,12 +200,16 @@ export default function RequestMoneyPage() {
     const styleMap: { [key: string]: string } = {
       approved: "bg-green-100 text-green-800 border-green-200",
       pending: "bg-yellow-100 text-yellow-800 border-yellow-200",
+      approving: "bg-blue-100 text-blue-800 border-blue-200",
       rejected: "bg-red-100 text-red-800 border-red-200",
+      expired: "bg-gray-100 text-gray-600 border-gray-200",
     };
     const iconMap: { [key: string]: React.ReactNode } = {
         approved: <Check className="h-3 w-3" />,
         pending: <Clock className="h-3 w-3" />,
+        approving: <Clock className="h-3 w-3" />,
         rejected: <X className="h-3 w-3" />,
+        expired: <Clock className="h-3 w-3" />,
     }
     return <Badge className={cn(styleMap[status], "capitalize") || "bg-gray-100"}>{iconMap[status]} {status}</Badge>;
   };
@@ -216,7 +263,6 @@ export default function RequestMoneyPage() {
     }
   };
 
-  const pendingIncomingCount = useMemo(() => incomingRequests.filter(r => r.status === "pending").length, [incomingRequests]);
 
   if (loading || !user) {
     return (
@@ -300,6 +346,7 @@ export default function RequestMoneyPage() {
                 </CardContent>
               </Card>
             ))}
+            {incomingCursor && <div className="flex justify-center"><Button variant="outline" onClick={() => fetchIncomingRequests(incomingCursor)}>Load more</Button></div>}
           </TabsContent>
           <TabsContent value="outgoing" className="space-y-4">
             {outgoingRequests.length === 0 ? <Card><CardContent className="py-12 text-center"><Send className="h-12 w-12 mx-auto text-muted-foreground mb-4" /><h3 className="font-semibold">No outgoing requests</h3><p className="text-sm text-muted-foreground">Click "New Request" to send your first one.</p></CardContent></Card> : outgoingRequests.map((req) => (
@@ -323,6 +370,7 @@ export default function RequestMoneyPage() {
                 </CardContent>
               </Card>
             ))}
+            {outgoingCursor && <div className="flex justify-center"><Button variant="outline" onClick={() => fetchOutgoingRequests(outgoingCursor)}>Load more</Button></div>}
           </TabsContent>
         </Tabs>
       </div>
@@ -31,7 +31,8 @@ import {
 } from "@/components/ui/tooltip";
 import { formatDistanceToNowStrict } from "date-fns";
 import { useToast } from "@/hooks/use-toast";
-import { User, Transaction, Notification } from "@/types";
+import { useNotificationStream } from "@/hooks/use-notification-stream";
+import { User, UserSummary, Transaction, Notification } from "@/types";
 import { authApi, transactionApi, notificationApi, userApi } from "@/lib/api-service";
 import { TrendingUp, TrendingDown, DollarSign, ArrowLeftRight } from "lucide-react";
 
@@ -43,7 +44,22 @@ export default function TransactionsPage() {
   const [notifications, setNotifications] = useState<Notification[]>([]);
   const [unreadCount, setUnreadCount] = useState(0);
   const [user, setUser] = useState<User | null>(null);
-  const [users, setUsers] = useState<User[]>([]);
+
+  useNotificationStream(user?.id, {
+    onNotification: (notification) => {
+      setNotifications((prev) => [notification, ...prev]);
+      setUnreadCount((count) => count + 1);
+    },
+    onNotificationUpdated: (notification) => {
+      // A digest grew in place; it is already counted as unread
+      setNotifications((prev) => prev.map((n) => (n.id === notification.id ? notification : n)));
+    },
+    onUnreadCount: setUnreadCount,
+    onConnected: () => {
+      if (user) fetchNotifications(user.id);
+    },
+  });
+  const [users, setUsers] = useState<UserSummary[]>([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
 
@@ -66,12 +82,14 @@ export default function TransactionsPage() {
     if (user) {
       fetchTransactions(user.id);
       fetchNotifications(user.id);
-      fetchUnreadCount(user.id);
-      fetchAllUsers();
       setLoading(false);
     }
   }, [user]);
 
+  useEffect(() => {
+    fetchCounterparties(transactions.flatMap((tx) => [tx.senderId, tx.recipientId]));
+  }, [transactions]);
+
   useEffect(() => {
     applyFilters();
   }, [transactions, filterType, filterStatus, dateRange]);
@@ -81,12 +99,14 @@ export default function TransactionsPage() {
     return user ? `${user.firstName} ${user.lastName}` : `User ${id}`;
   };
 
-  const fetchAllUsers = async () => {
+  const fetchCounterparties = async (ids: number[]) => {
+    const uniqueIds = Array.from(new Set(ids.filter(Boolean)));
+    if (uniqueIds.length === 0) return;
     try {
-      const allUsers = await userApi.searchUsers("");
-      setUsers(allUsers);
+      const counterparties = await userApi.getUsersBatch(uniqueIds);
+      setUsers(counterparties);
     } catch (err) {
-      console.error("Failed to fetch all users", err);
+      console.error("Failed to fetch counterparties", err);
     }
   };
 
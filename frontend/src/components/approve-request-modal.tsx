@@ -49,11 +49,11 @@ export function ApproveRequestModal({
     setError("");
     try {
       await requestApi.approveRequest(request.id, transactionPassword);
-      toast({ title: "Success", description: "Request approved and transaction completed.", variant: "success" });
+      toast({ title: "Approval submitted", description: "The payment is being processed. You'll be notified when it completes.", variant: "success" });
       onRequestApproved();
       handleOpenChange(false);
     } catch (err: any) {
-      const errorMessage = err.response?.data?.message || "An unexpected error occurred.";
+      const errorMessage = err.response?.data?.message || err.response?.data?.error || "An unexpected error occurred.";
       setError(errorMessage);
     } finally {
       setIsLoading(false);
@@ -13,7 +13,7 @@ import {
   DialogHeader,
   DialogTitle,
 } from "@/components/ui/dialog";
-import { User } from "@/types";
+import { User, UserSummary } from "@/types";
 import { userApi, requestApi } from "@/lib/api-service";
 import { useToast } from "@/hooks/use-toast";
 import { HandCoins, Search, Send, MessageSquare, Loader2, Users, X } from "lucide-react";
@@ -34,8 +34,8 @@ export function MoneyRequestModal({
   const { toast } = useToast();
   const [loading, setLoading] = useState(false);
   const [searching, setSearching] = useState(false);
-  const [searchResults, setSearchResults] = useState<User[]>([]);
-  const [selectedUser, setSelectedUser] = useState<User | null>(null);
+  const [searchResults, setSearchResults] = useState<UserSummary[]>([]);
+  const [selectedUser, setSelectedUser] = useState<UserSummary | null>(null);
   const [query, setQuery] = useState("");
   const [formData, setFormData] = useState({
     amount: "",
@@ -199,7 +199,7 @@ export function MoneyRequestModal({
                         }}
                       >
                         <div className="font-medium">{user.firstName} {user.lastName}</div>
-                        <div className="text-sm text-muted-foreground">{user.email}</div>
+                        <div className="text-sm text-muted-foreground">{user.maskedEmail}</div>
                       </div>
                     ))}
                   </div>
@@ -27,12 +27,14 @@ interface SendMoneyModalProps {
   show: boolean;
   handleClose: () => void;
   handleSendMoney: (recipientEmail: string, amount: number, description: string, transactionPassword?: string) => void;
+  authorizedAmount?: number; // Payments up to this amount are already authorized and need no password
 }
 
 export function SendMoneyModal({
   show,
   handleClose,
   handleSendMoney,
+  authorizedAmount = 0,
 }: SendMoneyModalProps) {
   const [recipientEmail, setRecipientEmail] = useState("");
   const [amount, setAmount] = useState("");
@@ -63,7 +65,7 @@ export function SendMoneyModal({
       newErrors.amount = "Maximum amount is ₹1,00,000";
     }
     
-    if (!transactionPassword) {
+    if (!transactionPassword && !(numAmount <= authorizedAmount)) {
       newErrors.transactionPassword = "Transaction password is required";
     }
 
@@ -236,6 +238,11 @@ export function SendMoneyModal({
                 {errors.transactionPassword}
               </div>
             )}
+            {authorizedAmount > 0 && !errors.transactionPassword && (
+              <p className="text-xs text-gray-500">
+                Not needed for payments up to {formatAmount(authorizedAmount.toString())} for the next few minutes.
+              </p>
+            )}
           </div>
 
           <Separator />
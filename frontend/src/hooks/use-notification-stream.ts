@@ -0,0 +1,89 @@
+"use client"
+
+import { useEffect, useRef } from "react"
+import { Notification } from "@/types"
+
+const API_BASE_URL = process.env.NEXT_PUBLIC_API_BASE_URL || "http://localhost:8080/api"
+const MAX_RETRY_DELAY_MS = 30000
+
+type StreamHandlers = {
+  onNotification: (notification: Notification) => void
+  onNotificationUpdated?: (notification: Notification) => void
+  onUnreadCount?: (unreadCount: number) => void
+  // Called whenever the stream (re)connects; anything pushed while it was down, or dropped, is only in the inbox
+  onConnected?: () => void
+}
+
+/**
+ * Subscribes to the notification push stream for the signed-in user.
+ * Uses fetch rather than EventSource so the bearer token travels in a header, not the URL.
+ */
+export function useNotificationStream(userId: number | undefined, handlers: StreamHandlers) {
+  const handlersRef = useRef(handlers)
+  handlersRef.current = handlers
+
+  useEffect(() => {
+    if (!userId) return
+    const controller = new AbortController()
+    let retryDelay = 1000
+    let retryTimer: ReturnType<typeof setTimeout> | undefined
+
+    const dispatch = (event: string, data: string) => {
+      if (!data) return
+      const payload = JSON.parse(data)
+      if (event === "notification") {
+        handlersRef.current.onNotification(payload)
+      } else if (event === "notification-updated") {
+        handlersRef.current.onNotificationUpdated?.(payload)
+      } else if (event === "unread-count") {
+        handlersRef.current.onUnreadCount?.(payload.unreadCount)
+      }
+    }
+
+    const connect = async () => {
+      const token = localStorage.getItem("token")
+      if (!token) return
+      try {
+        const response = await fetch(`${API_BASE_URL}/notifications/stream`, {
+          headers: { Authorization: `Bearer ${token}`, Accept: "text/event-stream" },
+          signal: controller.signal,
+        })
+        if (!response.ok || !response.body) throw new Error(`Stream failed with ${response.status}`)
+        retryDelay = 1000
+        handlersRef.current.onConnected?.()
+
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader()
+        let buffer = ""
+        while (true) {
+          const { value, done } = await reader.read()
+          if (done) break
+          buffer += value
+          const frames = buffer.split("\n\n")
+          buffer = frames.pop() ?? ""
+          for (const frame of frames) {
+            let event = "message"
+            const data: string[] = []
+            for (const line of frame.split("\n")) {
+              if (line.startsWith("event:")) event = line.slice(6).trim()
+              else if (line.startsWith("data:")) data.push(line.slice(5).trim())
+            }
+            dispatch(event, data.join("\n"))
+          }
+        }
+      } catch (error) {
+        if (controller.signal.aborted) return
+        console.error("Notification stream disconnected", error)
+      }
+      if (!controller.signal.aborted) {
+        retryTimer = setTimeout(connect, retryDelay)
+        retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY_MS)
+      }
+    }
+
+    connect()
+    return () => {
+      controller.abort()
+      if (retryTimer) clearTimeout(retryTimer)
+    }
+  }, [userId])
+}
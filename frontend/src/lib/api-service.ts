@@ -1,9 +1,15 @@
 import api from './api';
 import { 
   User, 
+  UserSummary,
   Transaction, 
   Notification, 
+  NotificationPage,
+  NotificationPreference,
   MoneyRequest, 
+  MoneyRequestPage,
+  MoneyRequestGroupProgress,
+  CreateGroupRequestDto,
   LoginRequest, 
   LoginResponse, 
   RegisterRequest, 
@@ -21,7 +27,7 @@ const getUserIdFromToken = (token: string): number | null => {
   }
   try {
     const payload = JSON.parse(atob(token.split('.')[1]));
-    return payload.id || payload.sub;
+    return payload.id || Number(payload.sub);
   } catch (e) {
     console.warn("Token is not a standard JWT. Falling back to dummy token parsing.");
     return null;
@@ -64,16 +70,26 @@ export const userApi = {
     const response = await api.post(`/users/${userId}/transaction-password`, { password });
     return response.data;
   },
-  searchUsers: async (query: string): Promise<User[]> => {
+  searchUsers: async (query: string): Promise<UserSummary[]> => {
     const response = await api.get(`/users/search?q=${encodeURIComponent(query)}`);
     return response.data;
   },
 
+  getUsersBatch: async (ids: number[]): Promise<UserSummary[]> => {
+    const response = await api.post('/users/batch', { ids });
+    return response.data;
+  },
+
   getUserById: async (id: number): Promise<User> => {
     const response = await api.get(`/users/${id}`);
     return response.data;
   },
   
+  authorizePayments: async (userId: number, transactionPassword: string, maxAmount?: number): Promise<{ paymentToken: string; expiresAt: number; maxAmount: number }> => {
+    const response = await api.post(`/users/${userId}/payment-authorizations`, { transactionPassword, maxAmount });
+    return response.data;
+  },
+
   changeTransactionPassword: async (userId: number, data: any): Promise<any> => {
     const response = await api.put(`/users/${userId}/transaction-password`, data);
     return response.data;
@@ -97,31 +113,44 @@ export const requestApi = {
     return response.data;
   },
 
+  createGroupRequest: async (requestData: CreateGroupRequestDto): Promise<MoneyRequestGroupProgress> => {
+    const response = await api.post('/requests/groups', requestData);
+    return response.data;
+  },
+
+  getGroupProgress: async (groupId: number): Promise<MoneyRequestGroupProgress> => {
+    const response = await api.get(`/requests/groups/${groupId}`);
+    return response.data;
+  },
+
   getUserRequests: async (userId: number): Promise<MoneyRequest[]> => {
     const response = await api.get(`/requests/user/${userId}`);
     return response.data.requests;
   },
 
-  getIncomingRequests: async (): Promise<MoneyRequest[]> => {
-    const token = localStorage.getItem('token');
-    if (!token) throw new Error('No token found');
-    
-    const userId = getUserIdFromToken(token);
-    if (!userId) throw new Error('Invalid token format');
-    
-    const response = await api.get(`/requests/user/${userId}`);
-    return response.data.requests.filter((req: MoneyRequest) => req.recipientId === userId);
+  // Pass the previous page's nextCursor to load older requests; a null nextCursor means there are no more
+  getIncomingRequests: async (status?: string, cursor?: string): Promise<MoneyRequestPage> => {
+    return requestApi.getRequestPage('inbox', status, cursor);
+  },
+
+  getOutgoingRequests: async (status?: string, cursor?: string): Promise<MoneyRequestPage> => {
+    return requestApi.getRequestPage('outbox', status, cursor);
   },
 
-  getOutgoingRequests: async (): Promise<MoneyRequest[]> => {
+  getRequestPage: async (box: 'inbox' | 'outbox', status?: string, cursor?: string): Promise<MoneyRequestPage> => {
     const token = localStorage.getItem('token');
     if (!token) throw new Error('No token found');
     
     const userId = getUserIdFromToken(token);
     if (!userId) throw new Error('Invalid token format');
     
-    const response = await api.get(`/requests/user/${userId}`);
-    return response.data.requests.filter((req: MoneyRequest) => req.requesterId === userId);
+    const response = await api.get(`/requests/user/${userId}/${box}`, { params: { status, cursor, size: 50 } });
+    return response.data;
+  },
+
+  getPendingCount: async (userId: number): Promise<number> => {
+    const response = await api.get(`/requests/user/${userId}/pending-count`);
+    return response.data.pendingCount;
   },
 
   approveRequest: async (requestId: number, transactionPassword: string): Promise<MoneyRequest> => {
@@ -142,17 +171,31 @@ export const requestApi = {
 
 // Notification API
 export const notificationApi = {
-  getUserNotifications: async (userId: number): Promise<Notification[]> => {
-    const response = await api.get(`/notifications/user?id=${userId}`);
+  getUserNotifications: async (userId: number, limit = 50): Promise<Notification[]> => {
+    const response = await api.get(`/notifications/user`, { params: { id: userId, limit } });
     return response.data.notifications;
   },
 
+  getNotificationPage: async (
+    userId: number,
+    options: { cursor?: string; limit?: number; unreadOnly?: boolean; type?: string } = {}
+  ): Promise<NotificationPage> => {
+    const response = await api.get(`/notifications/user`, { params: { id: userId, ...options } });
+    return response.data;
+  },
+
   markAsRead: async (notificationId: number): Promise<void> => {
     await api.put(`/notifications/${notificationId}/read`);
   },
 
-  markAllAsRead: async (userId: number): Promise<void> => {
-    await api.put(`/notifications/user/${userId}/read-all`);
+  markAllAsRead: async (userId: number): Promise<number> => {
+    const response = await api.put(`/notifications/user/${userId}/read-all`);
+    return response.data.updated;
+  },
+
+  markManyAsRead: async (userId: number, ids: number[]): Promise<number> => {
+    const response = await api.put(`/notifications/user/${userId}/read`, { ids });
+    return response.data.updated;
   },
 
   deleteNotification: async (notificationId: number): Promise<void> => {
@@ -163,6 +206,16 @@ export const notificationApi = {
     const response = await api.get(`/notifications/user/${userId}/unread-count`);
     return response.data;
   },
+
+  getPreferences: async (userId: number): Promise<NotificationPreference[]> => {
+    const response = await api.get(`/notifications/preferences/${userId}`);
+    return response.data;
+  },
+
+  updatePreferences: async (userId: number, preferences: NotificationPreference[]): Promise<NotificationPreference[]> => {
+    const response = await api.put(`/notifications/preferences/${userId}`, preferences);
+    return response.data;
+  },
 };
 
 // Transaction API
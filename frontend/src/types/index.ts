@@ -10,6 +10,14 @@ export interface User {
   avatar?: string;
 }
 
+// Lean profile returned by search and batch lookups
+export interface UserSummary {
+  id: number;
+  firstName: string;
+  lastName: string;
+  maskedEmail: string;
+}
+
 export interface Transaction {
   id: number;
   senderId: number;
@@ -28,6 +36,9 @@ export interface Notification {
   timestamp: string;
   read: boolean;
   type: 'transaction' | 'request' | 'system';
+  category?: string;
+  amount?: number;
+  digestCount?: number; // Set on digests that fold a burst of notifications
 }
 
 export interface MoneyRequest {
@@ -36,8 +47,55 @@ export interface MoneyRequest {
   recipientId: number;
   amount: number;
   message: string;
-  status: 'pending' | 'approved' | 'rejected';
+  status: 'pending' | 'approving' | 'approved' | 'rejected' | 'expired';
   timestamp: string;
+  expiresAt?: string;
+  groupId?: number | null;
+}
+
+export interface NotificationPage {
+  notifications: Notification[];
+  nextCursor: string | null;
+}
+
+// Omitted types use the default: everything on. Turning inApp off mutes the type on every channel.
+export interface NotificationPreference {
+  type: string;
+  inApp: boolean;
+  email: boolean;
+  sms: boolean;
+  push: boolean;
+}
+
+export interface MoneyRequestGroup {
+  id: number;
+  requesterId: number;
+  totalAmount: number;
+  message: string;
+  memberCount: number;
+  createdAt: string;
+}
+
+export interface MoneyRequestGroupProgress {
+  group: MoneyRequestGroup;
+  requests: MoneyRequest[];
+  paidCount: number;
+  pendingCount: number;
+  paidAmount: number;
+}
+
+export interface CreateGroupRequestDto {
+  requesterId: number;
+  recipientIds: number[];
+  totalAmount: number;
+  includeRequester?: boolean;
+  message: string;
+  expiresInHours?: number;
+}
+
+export interface MoneyRequestPage {
+  requests: MoneyRequest[];
+  nextCursor: string | null;
 }
 
 // API Response types
@@ -62,6 +120,7 @@ export interface CreateMoneyRequestDto {
   recipientId: number;
   amount: number;
   message: string;
+  expiresInHours?: number;
 }
 
 export interface LoginRequest {